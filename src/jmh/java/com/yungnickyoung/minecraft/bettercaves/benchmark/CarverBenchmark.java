@@ -0,0 +1,122 @@
+package com.yungnickyoung.minecraft.bettercaves.benchmark;
+
+import com.yungnickyoung.minecraft.bettercaves.config.ConfigHolder;
+import com.yungnickyoung.minecraft.bettercaves.config.Settings;
+import com.yungnickyoung.minecraft.bettercaves.enums.CaveType;
+import com.yungnickyoung.minecraft.bettercaves.enums.CavernType;
+import com.yungnickyoung.minecraft.bettercaves.noise.NoiseBuffer;
+import com.yungnickyoung.minecraft.bettercaves.world.cave.CaveCarver;
+import com.yungnickyoung.minecraft.bettercaves.world.cave.CavernCarver;
+import com.yungnickyoung.minecraft.bettercaves.world.cave.ColumnContext;
+import com.yungnickyoung.minecraft.bettercaves.world.cave.builder.CaveCarverBuilder;
+import com.yungnickyoung.minecraft.bettercaves.world.cave.builder.CavernCarverBuilder;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.ChunkPrimer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures carving every column of a chunk with a single cave or cavern carver, excluding noise generation.
+ * Noise cubes are computed once during setup. Since carving may modify noise values, they are restored
+ * along with the ChunkPrimer before every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarverBenchmark {
+    private static final int CHUNK_X = 3;
+    private static final int CHUNK_Z = -5;
+    private static final int SUB_CHUNKS_PER_AXIS = 16 / Settings.SUB_CHUNK_SIZE;
+    private static final int MAX_SURFACE_HEIGHT = SyntheticTerrain.DEFAULT_SURFACE_HEIGHT;
+    private static final int MIN_SURFACE_HEIGHT = 60;
+
+    private ConfigHolder config;
+    private CaveCarver caveCarver;
+    private CavernCarver cavernCarver;
+    private ColumnContext columnContext;
+    private IBlockState lavaBlock;
+
+    private ChunkPrimer primer = new ChunkPrimer();
+
+    // Noise cubes for each sub-chunk, along with untouched copies of their values
+    private NoiseBuffer[] caveNoise = new NoiseBuffer[SUB_CHUNKS_PER_AXIS * SUB_CHUNKS_PER_AXIS];
+    private NoiseBuffer[] cavernNoise = new NoiseBuffer[SUB_CHUNKS_PER_AXIS * SUB_CHUNKS_PER_AXIS];
+    private double[][] caveNoiseValues = new double[caveNoise.length][];
+    private double[][] cavernNoiseValues = new double[cavernNoise.length][];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessWorld world = HeadlessWorld.create(1234);
+        config = new ConfigHolder();
+        caveCarver = new CaveCarverBuilder(world).ofTypeFromConfig(CaveType.CUBIC, config).build();
+        cavernCarver = new CavernCarverBuilder(world).ofTypeFromConfig(CavernType.LAVA, config).build();
+        columnContext = new ColumnContext().setChunk(world, CHUNK_X, CHUNK_Z);
+        lavaBlock = Blocks.FLOWING_LAVA.getDefaultState();
+
+        for (int subChunk = 0; subChunk < caveNoise.length; subChunk++) {
+            BlockPos startPos = getSubChunkStart(subChunk);
+            BlockPos endPos = startPos.add(Settings.SUB_CHUNK_SIZE - 1, 0, Settings.SUB_CHUNK_SIZE - 1);
+
+            caveNoise[subChunk] = caveCarver.getNoiseGen().interpolateNoiseCube(startPos, endPos,
+                    config.cubicCaveBottom.get(), MAX_SURFACE_HEIGHT);
+            caveNoiseValues[subChunk] = caveNoise[subChunk].getValues().clone();
+
+            cavernNoise[subChunk] = cavernCarver.getNoiseGen().interpolateNoiseCube(startPos, endPos,
+                    config.lavaCavernBottom.get(), config.lavaCavernTop.get());
+            cavernNoiseValues[subChunk] = cavernNoise[subChunk].getValues().clone();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        SyntheticTerrain.fill(primer, SyntheticTerrain.DEFAULT_SURFACE_HEIGHT);
+        for (int subChunk = 0; subChunk < caveNoise.length; subChunk++) {
+            System.arraycopy(caveNoiseValues[subChunk], 0, caveNoise[subChunk].getValues(), 0, caveNoiseValues[subChunk].length);
+            System.arraycopy(cavernNoiseValues[subChunk], 0, cavernNoise[subChunk].getValues(), 0, cavernNoiseValues[subChunk].length);
+        }
+    }
+
+    @Benchmark
+    public ChunkPrimer carveCaveChunk() {
+        for (int subChunk = 0; subChunk < caveNoise.length; subChunk++) {
+            BlockPos startPos = getSubChunkStart(subChunk);
+            for (int offsetX = 0; offsetX < Settings.SUB_CHUNK_SIZE; offsetX++) {
+                for (int offsetZ = 0; offsetZ < Settings.SUB_CHUNK_SIZE; offsetZ++) {
+                    BlockPos colPos = startPos.add(offsetX, 0, offsetZ);
+                    columnContext.setColumn(colPos.getX() & 15, colPos.getZ() & 15);
+                    caveCarver.generateColumnWithNoise(primer, columnContext, colPos, config.cubicCaveBottom.get(),
+                            MAX_SURFACE_HEIGHT, MAX_SURFACE_HEIGHT, MIN_SURFACE_HEIGHT, lavaBlock, caveNoise[subChunk], false);
+                }
+            }
+        }
+        return primer;
+    }
+
+    @Benchmark
+    public ChunkPrimer carveCavernChunk() {
+        for (int subChunk = 0; subChunk < cavernNoise.length; subChunk++) {
+            BlockPos startPos = getSubChunkStart(subChunk);
+            for (int offsetX = 0; offsetX < Settings.SUB_CHUNK_SIZE; offsetX++) {
+                for (int offsetZ = 0; offsetZ < Settings.SUB_CHUNK_SIZE; offsetZ++) {
+                    BlockPos colPos = startPos.add(offsetX, 0, offsetZ);
+                    columnContext.setColumn(colPos.getX() & 15, colPos.getZ() & 15);
+                    cavernCarver.generateColumnWithNoise(primer, columnContext, colPos, config.lavaCavernBottom.get(),
+                            config.lavaCavernTop.get(), MAX_SURFACE_HEIGHT, MIN_SURFACE_HEIGHT, lavaBlock, 1, cavernNoise[subChunk], false);
+                }
+            }
+        }
+        return primer;
+    }
+
+    private static BlockPos getSubChunkStart(int subChunk) {
+        int subX = subChunk / SUB_CHUNKS_PER_AXIS;
+        int subZ = subChunk % SUB_CHUNKS_PER_AXIS;
+        return new BlockPos(CHUNK_X * 16 + subX * Settings.SUB_CHUNK_SIZE, 1, CHUNK_Z * 16 + subZ * Settings.SUB_CHUNK_SIZE);
+    }
+}
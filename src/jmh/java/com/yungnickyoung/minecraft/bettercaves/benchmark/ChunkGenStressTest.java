@@ -0,0 +1,263 @@
+package com.yungnickyoung.minecraft.bettercaves.benchmark;
+
+import com.yungnickyoung.minecraft.bettercaves.config.ConfigHolder;
+import com.yungnickyoung.minecraft.bettercaves.world.MapGenBetterCaves;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.gen.MapGenCaves;
+import net.minecraftforge.event.terraingen.InitMapGenEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Standalone stress test for full Better Caves chunk generation.
+ * Generates every chunk of an N x N chunk area from flat synthetic terrain, for each seed given, and reports
+ * throughput, per-chunk latency percentiles and bytes allocated per chunk.
+ *
+ * Run with: ./gradlew stressTest -PstressArgs="--size 32 --seeds 1,2,3 --threads 4 --shared"
+ *
+ * Options:
+ * <pre>
+ *   --size N          Width of the chunk area, in chunks (default 16)
+ *   --seeds A,B,...   World seeds to generate (default 1234)
+ *   --threads T       Number of threads generating chunks (default 1)
+ *   --shared          Generates on all threads with one shared world and carver, rather than one per thread
+ *   --warmup N        Width of the chunk area generated before measuring, to warm up the JIT (default 8)
+ *   --set NAME=VALUE  Overrides a config option, see {@link ConfigOverrides}. May be given more than once.
+ * </pre>
+ *
+ * In multi-threaded mode, threads take chunks from a shared queue. By default, each thread has its own world and
+ * carver, which measures how generation scales when nothing is shared. With --shared, one world and carver serve
+ * every thread, as when a server generates a dimension's chunks on several threads, which also measures contention
+ * on the carver's shared state. Biome lookups are serialized in both modes, see {@link HeadlessWorld}.
+ * Allocations are measured on the generating threads only, so allocations made by parallel noise generation on
+ * other threads are not included. Terrain filling is not included in latencies or allocations, but is included in
+ * throughput.
+ */
+public class ChunkGenStressTest {
+    private int size = 16;
+    private long[] seeds = {1234};
+    private int numThreads = 1;
+    private boolean isShared = false;
+    private int warmupSize = 8;
+    private List<String> overrides = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        ChunkGenStressTest test = new ChunkGenStressTest();
+        try {
+            test.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ChunkGenStressTest [--size N] [--seeds A,B,...] [--threads T] [--shared] [--warmup N] [--set NAME=VALUE]...");
+            System.exit(1);
+        }
+        test.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--shared")) {
+                isShared = true;
+                continue;
+            }
+
+            if (i + 1 >= args.length)
+                throw new IllegalArgumentException("Missing value for " + arg);
+            String value = args[++i];
+            switch (arg) {
+                case "--size":
+                    size = parsePositive(arg, value);
+                    break;
+                case "--seeds":
+                    seeds = Arrays.stream(value.split(",")).mapToLong(s -> Long.parseLong(s.trim())).toArray();
+                    break;
+                case "--threads":
+                    numThreads = parsePositive(arg, value);
+                    break;
+                case "--warmup":
+                    warmupSize = Integer.parseInt(value);
+                    break;
+                case "--set":
+                    overrides.add(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        // Fail fast on bad overrides
+        ConfigOverrides.create(overrides);
+    }
+
+    private static int parsePositive(String arg, String value) {
+        int n = Integer.parseInt(value);
+        if (n <= 0)
+            throw new IllegalArgumentException(arg + " must be positive");
+        return n;
+    }
+
+    private void run() throws InterruptedException, ExecutionException {
+        HeadlessWorld.bootstrap();
+        System.out.println(String.format("Better Caves stress test: %dx%d chunks, %d seed(s), %d thread(s)%s",
+                size, size, seeds.length, numThreads, isShared ? " sharing one carver" : ""));
+        for (String override : overrides)
+            System.out.println("  " + override);
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            if (warmupSize > 0) {
+                System.out.println("Warming up...");
+                generateArea(executor, seeds[0], warmupSize);
+            }
+
+            List<Result> results = new ArrayList<>();
+            for (long seed : seeds) {
+                Result result = generateArea(executor, seed, size);
+                results.add(result);
+                result.print("Seed " + seed);
+            }
+            if (seeds.length > 1)
+                Result.combine(results).print("All seeds");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Generates every chunk of a square area on all threads.
+     * @param executor Executor with one thread per generating thread
+     * @param seed World seed
+     * @param areaSize Width of the area, in chunks
+     * @return the measurements for the area
+     */
+    private Result generateArea(ExecutorService executor, long seed, int areaSize) throws InterruptedException, ExecutionException {
+        // Carvers initialize themselves when generating their first chunk. This is done for each carver before
+        // measuring, using a chunk outside of the area, on every thread that uses it.
+        List<Generator> generators = new ArrayList<>();
+        Generator sharedGenerator = isShared ? new Generator(seed) : null;
+        List<Callable<Void>> setupTasks = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            Generator generator = isShared ? sharedGenerator : new Generator(seed);
+            generators.add(generator);
+            setupTasks.add(() -> {
+                generator.generate(-1, -1);
+                return null;
+            });
+        }
+        for (Future<Void> future : executor.invokeAll(setupTasks))
+            future.get();
+
+        int numChunks = areaSize * areaSize;
+        AtomicInteger nextChunk = new AtomicInteger();
+        long[] latencies = new long[numChunks];
+
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (Generator generator : generators) {
+            tasks.add(() -> {
+                long allocated = 0;
+                int i;
+                while ((i = nextChunk.getAndIncrement()) < numChunks) {
+                    long allocatedStart = getAllocatedBytes();
+                    latencies[i] = generator.generate(i % areaSize, i / areaSize);
+                    allocated += getAllocatedBytes() - allocatedStart;
+                }
+                return allocated;
+            });
+        }
+
+        long start = System.nanoTime();
+        long allocated = 0;
+        for (Future<Long> future : executor.invokeAll(tasks))
+            allocated += future.get();
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(latencies, elapsed, allocated);
+    }
+
+    /**
+     * A world and carver, used by a single thread or, with --shared, by every thread.
+     * Each thread generates chunks in its own primer.
+     */
+    private class Generator {
+        private final HeadlessWorld world;
+        private final MapGenBetterCaves caveGen;
+        private final ThreadLocal<ChunkPrimer> primers = ThreadLocal.withInitial(ChunkPrimer::new);
+
+        Generator(long seed) {
+            ConfigHolder config = ConfigOverrides.create(overrides);
+            world = HeadlessWorld.create(seed);
+            caveGen = new MapGenBetterCaves(new InitMapGenEvent(InitMapGenEvent.EventType.CAVE, new MapGenCaves()), config);
+        }
+
+        /**
+         * Generates a chunk from fresh synthetic terrain.
+         * @return time taken by the carver, in nanoseconds
+         */
+        long generate(int chunkX, int chunkZ) {
+            ChunkPrimer primer = primers.get();
+            SyntheticTerrain.fill(primer, SyntheticTerrain.DEFAULT_SURFACE_HEIGHT);
+            long start = System.nanoTime();
+            caveGen.generate(world, chunkX, chunkZ, primer);
+            return System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * @return bytes allocated so far by the current thread, or 0 if the JVM can't measure allocations
+     */
+    private static long getAllocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled())
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * Measurements for one or more chunk areas.
+     */
+    private static class Result {
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final long allocatedBytes;
+
+        Result(long[] latencies, long elapsedNanos, long allocatedBytes) {
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+            this.elapsedNanos = elapsedNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        static Result combine(List<Result> results) {
+            long[] latencies = results.stream().flatMapToLong(r -> Arrays.stream(r.latencies)).toArray();
+            long elapsed = results.stream().mapToLong(r -> r.elapsedNanos).sum();
+            long allocated = results.stream().mapToLong(r -> r.allocatedBytes).sum();
+            return new Result(latencies, elapsed, allocated);
+        }
+
+        void print(String label) {
+            int numChunks = latencies.length;
+            System.out.println(String.format("%s: %d chunks in %.2fs, %.1f chunks/s", label, numChunks,
+                    elapsedNanos / 1e9, numChunks / (elapsedNanos / 1e9)));
+            System.out.println(String.format("  Latency: p50 %.3fms, p90 %.3fms, p99 %.3fms, max %.3fms",
+                    percentile(.5) / 1e6, percentile(.9) / 1e6, percentile(.99) / 1e6, latencies[numChunks - 1] / 1e6));
+            System.out.println(String.format("  Allocated: %.1f KiB per chunk", allocatedBytes / 1024.0 / numChunks));
+        }
+
+        private long percentile(double p) {
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.yungnickyoung.minecraft.bettercaves.benchmark;
+
+import com.yungnickyoung.minecraft.bettercaves.config.ConfigHolder;
+
+import java.util.List;
+
+/**
+ * Builds ConfigHolders with options overridden from the command line, for tools that run generation outside of
+ * Minecraft.
+ * This class may not be instantiated - all members are {@code public} and {@code static},
+ * and as such may be accessed freely.
+ */
+public class ConfigOverrides {
+    private ConfigOverrides() {} // Private constructor prevents instantiation
+
+    /**
+     * Creates a ConfigHolder with the global defaults, and applies overrides to it.
+     * Each override has the form {@code name=value}. The name is either an option's full name, e.g.
+     * {@code general.cave & cavern generation.Liquid Altitude}, or just its name, e.g. {@code Liquid Altitude},
+     * as long as only one option has that name. Names are case-insensitive.
+     * @param overrides Overrides to apply, in order
+     * @return the ConfigHolder
+     * @throws IllegalArgumentException if an override is malformed, or does not match exactly one option
+     */
+    public static ConfigHolder create(List<String> overrides) {
+        ConfigHolder config = new ConfigHolder();
+        for (String override : overrides)
+            apply(config, override);
+        return config;
+    }
+
+    /**
+     * Applies a single {@code name=value} override to a ConfigHolder.
+     * @param config The ConfigHolder
+     * @param override The override
+     * @throws IllegalArgumentException if the override is malformed, or does not match exactly one option
+     */
+    public static void apply(ConfigHolder config, String override) {
+        int split = override.indexOf('=');
+        if (split < 0)
+            throw new IllegalArgumentException("Config override '" + override + "' must have the form name=value");
+
+        String name = override.substring(0, split).trim();
+        String value = override.substring(split + 1).trim();
+        ConfigHolder.ConfigOption<?> option = findOption(config, name);
+        option.set(parseValue(option, value));
+    }
+
+    private static ConfigHolder.ConfigOption<?> findOption(ConfigHolder config, String name) {
+        ConfigHolder.ConfigOption<?> match = null;
+        for (ConfigHolder.ConfigOption<?> option : config.properties.values()) {
+            if (option.fullName.equalsIgnoreCase(name))
+                return option;
+            if (option.name.equalsIgnoreCase(name)) {
+                if (match != null)
+                    throw new IllegalArgumentException("Config option name '" + name + "' is ambiguous. Use its full name, e.g. '"
+                            + match.fullName + "'");
+                match = option;
+            }
+        }
+
+        if (match == null)
+            throw new IllegalArgumentException("Unknown config option '" + name + "'");
+        return match;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parseValue(ConfigHolder.ConfigOption<?> option, String value) {
+        try {
+            if (option.type == Integer.class)
+                return Integer.parseInt(value);
+            if (option.type == Float.class)
+                return Float.parseFloat(value);
+            if (option.type == Double.class)
+                return Double.parseDouble(value);
+            if (option.type == Boolean.class) {
+                if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false"))
+                    throw new IllegalArgumentException("expected true or false");
+                return Boolean.parseBoolean(value);
+            }
+            if (option.type.isEnum())
+                return Enum.valueOf((Class<? extends Enum>) option.type, value);
+            return value;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for config option '" + option.fullName + "': "
+                    + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.yungnickyoung.minecraft.bettercaves.benchmark;
+
+import com.yungnickyoung.minecraft.bettercaves.noise.FastNoise;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single 3D FastNoise evaluation for each noise type.
+ * Sample positions move every call so that results can't be folded into constants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastNoiseBenchmark {
+    @Param({"Value", "ValueFractal", "Perlin", "PerlinFractal", "Simplex", "SimplexFractal", "Cellular", "Cubic", "CubicFractal"})
+    public FastNoise.NoiseType noiseType;
+
+    private FastNoise noise;
+    private int i;
+
+    @Setup
+    public void setup() {
+        noise = new FastNoise(1234);
+        noise.SetNoiseType(noiseType);
+        noise.SetFractalType(FastNoise.FractalType.RigidMulti);
+        noise.SetFractalOctaves(1);
+        noise.SetFrequency(.03f);
+    }
+
+    @Benchmark
+    public float getNoise() {
+        i++;
+        return noise.GetNoise(i & 1023, (i >> 10) & 127, i >> 17);
+    }
+}
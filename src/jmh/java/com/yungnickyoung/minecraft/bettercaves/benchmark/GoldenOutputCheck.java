@@ -0,0 +1,633 @@
+package com.yungnickyoung.minecraft.bettercaves.benchmark;
+
+import com.yungnickyoung.minecraft.bettercaves.config.ConfigHolder;
+import com.yungnickyoung.minecraft.bettercaves.config.Settings;
+import com.yungnickyoung.minecraft.bettercaves.enums.CaveType;
+import com.yungnickyoung.minecraft.bettercaves.enums.CavernType;
+import com.yungnickyoung.minecraft.bettercaves.noise.NoiseBuffer;
+import com.yungnickyoung.minecraft.bettercaves.noise.NoiseGen;
+import com.yungnickyoung.minecraft.bettercaves.util.ChunkPrimerAccess;
+import com.yungnickyoung.minecraft.bettercaves.world.MapGenBetterCaves;
+import com.yungnickyoung.minecraft.bettercaves.world.cave.builder.CaveCarverBuilder;
+import com.yungnickyoung.minecraft.bettercaves.world.cave.builder.CavernCarverBuilder;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.gen.MapGenCaves;
+import net.minecraftforge.event.terraingen.InitMapGenEvent;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Determinism check for Better Caves generation.
+ * Generates a fixed set of chunks for several seeds and config presets, hashes the carved primers, and compares the
+ * hashes against a stored golden file. Any change to the noise generators or carvers that changes terrain in existing
+ * worlds shows up as a mismatch.
+ *
+ * Presets that only enable performance options, such as parallel noise generation, aren't stored in the golden file.
+ * They must generate exactly the same chunks as the default preset, and are compared against it directly, so they
+ * are checked even without a golden file.
+ *
+ * The noise of each cave and cavern type's default noise generator is also hashed, sub-chunk by sub-chunk, and
+ * compared against a separate golden noise file. Noise doesn't depend on the block registry or vanilla generation,
+ * so the golden noise file is the same in every environment, and is committed. It was recorded from, and matches,
+ * the noise of the generator before the performance options were added.
+ *
+ * Run with: ./gradlew goldenCheck, or ./gradlew goldenCheck -PgoldenArgs="--record" to store new golden output.
+ *
+ * Options:
+ * <pre>
+ *   --record          Stores the current output as the new golden output, instead of checking against it
+ *   --golden FILE     Golden hash file (default src/jmh/golden/hashes.txt)
+ *   --columns FILE    Golden column file (default src/jmh/golden/columns.gz). Written alongside the hashes when
+ *                     recording, and used when checking to report which columns and y-levels of a mismatched chunk
+ *                     changed. Columns are stored as runs of block state names, so the file is compact enough to
+ *                     commit and doesn't depend on block state IDs.
+ *   --max-columns N   Maximum number of changed columns reported per chunk (default 16)
+ *   --noise FILE      Golden noise hash file (default src/jmh/golden/noise.txt)
+ * </pre>
+ *
+ * Golden chunk output must be recorded in the ForgeGradle dev environment, since the headless world uses the real
+ * Minecraft block registry and vanilla cave generator. It can't be recorded from an older generator: water region
+ * jitter changed terrain in 1.7.0, so it must be re-recorded whenever a change to the carvers is meant to change
+ * terrain, in the same commit. If the golden file is missing, only the noise and the performance presets are
+ * checked, and the run says so.
+ * Hashes are computed from block state names rather than block state IDs, so they don't depend on the order blocks
+ * are registered in. Exits with status 1 if any chunk does not match.
+ */
+public class GoldenOutputCheck {
+    private static final long[] SEEDS = {1234, -987654321, 42};
+
+    /** Config presets stored in the golden file, by name. Each preset is a list of overrides, see {@link ConfigOverrides}. */
+    private static final Map<String, List<String>> PRESETS = new LinkedHashMap<>();
+    static {
+        PRESETS.put("default", Collections.emptyList());
+        PRESETS.put("no-water-regions", Collections.singletonList("Enable Water Regions=false"));
+        PRESETS.put("flat-bedrock", Arrays.asList("Flatten Bedrock=true", "Bedrock Layer Width=3"));
+        PRESETS.put("debug-visualizer", Collections.singletonList("Enable DEBUG Visualizer=true"));
+    }
+
+    /** Config presets that must generate the same chunks as the default preset, by name */
+    private static final Map<String, List<String>> EQUIVALENT_PRESETS = new LinkedHashMap<>();
+    static {
+        EQUIVALENT_PRESETS.put("parallel", Collections.singletonList("Enable Parallel Noise Generation=true"));
+        EQUIVALENT_PRESETS.put("eager-noise", Collections.singletonList("Enable Lazy Cave Noise Evaluation=false"));
+    }
+
+    /** Chunks generated for every seed and preset. Includes chunks far from the origin, to cover large coordinates. */
+    private static final List<int[]> CHUNKS = new ArrayList<>();
+    static {
+        for (int x = -2; x < 2; x++)
+            for (int z = -2; z < 2; z++)
+                CHUNKS.add(new int[]{x, z});
+        for (int x = 0; x < 2; x++)
+            for (int z = 0; z < 2; z++)
+                CHUNKS.add(new int[]{100000 + x, -100000 + z});
+    }
+
+    /** Sub-chunks whose noise is stored in the golden noise file, by the block coordinates of their starting corner */
+    private static final List<int[]> NOISE_SUB_CHUNKS = new ArrayList<>();
+    static {
+        for (int x = -8; x < 8; x += Settings.SUB_CHUNK_SIZE)
+            for (int z = -8; z < 8; z += Settings.SUB_CHUNK_SIZE)
+                NOISE_SUB_CHUNKS.add(new int[]{x, z});
+        NOISE_SUB_CHUNKS.add(new int[]{1600000, -1600000});
+        NOISE_SUB_CHUNKS.add(new int[]{-29999984, 29999980});
+    }
+
+    /** Bottom and top y-coordinates of the stored noise */
+    private static final int NOISE_MIN_Y = 1, NOISE_MAX_Y = 128;
+
+    /** Version of the golden column file format, written at the start of the file */
+    private static final int COLUMNS_FORMAT_VERSION = 1;
+
+    private boolean record = false;
+    private File goldenFile = new File("src/jmh/golden/hashes.txt");
+    private File columnsFile = new File("src/jmh/golden/columns.gz");
+    private File noiseFile = new File("src/jmh/golden/noise.txt");
+    private int maxColumns = 16;
+
+    /** Name of each block state ID, and its hash. Computed once, after bootstrapping. */
+    private String[] stateNames;
+    private long[] stateHashes;
+
+    public static void main(String[] args) throws IOException {
+        GoldenOutputCheck check = new GoldenOutputCheck();
+        try {
+            check.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: GoldenOutputCheck [--record] [--golden FILE] [--columns FILE] [--max-columns N] [--noise FILE]");
+            System.exit(1);
+        }
+
+        HeadlessWorld.bootstrap();
+        check.computeStateNames();
+        boolean passed = check.record ? check.record() : check.check();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--record")) {
+                record = true;
+                continue;
+            }
+
+            if (i + 1 >= args.length)
+                throw new IllegalArgumentException("Missing value for " + arg);
+            String value = args[++i];
+            switch (arg) {
+                case "--golden":
+                    goldenFile = new File(value);
+                    break;
+                case "--columns":
+                    columnsFile = new File(value);
+                    break;
+                case "--max-columns":
+                    maxColumns = Integer.parseInt(value);
+                    break;
+                case "--noise":
+                    noiseFile = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+    }
+
+    /**
+     * Generates every chunk of the stored presets, and stores its hash and columns.
+     * @return true
+     */
+    private boolean record() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Better Caves golden output hashes: preset seed chunkX chunkZ hash");
+        lines.add("# Regenerate with ./gradlew goldenCheck -PgoldenArgs=\"--record\" in the dev environment");
+
+        Map<String, Integer> nameIndices = new LinkedHashMap<>();
+        Map<String, byte[]> columns = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> preset : PRESETS.entrySet()) {
+            for (long seed : SEEDS) {
+                Generator generator = new Generator(preset.getValue(), seed);
+                for (int[] chunk : CHUNKS) {
+                    char[] data = generator.generate(chunk[0], chunk[1]);
+                    String key = getKey(preset.getKey(), seed, chunk);
+                    lines.add(String.format("%s %016x", key, hash(data)));
+                    columns.put(key, encodeColumns(data, nameIndices));
+                }
+            }
+        }
+
+        if (goldenFile.getParentFile() != null)
+            Files.createDirectories(goldenFile.getParentFile().toPath());
+        Files.write(goldenFile.toPath(), lines, StandardCharsets.UTF_8);
+        writeColumnsFile(nameIndices, columns);
+        System.out.println("Recorded " + (lines.size() - 2) + " golden chunk hashes to " + goldenFile
+                + ", and their columns to " + columnsFile);
+
+        List<String> noiseLines = new ArrayList<>();
+        noiseLines.add("# Better Caves golden noise hashes: noise seed x z hash");
+        noiseLines.add("# Regenerate with ./gradlew goldenCheck -PgoldenArgs=\"--record\"");
+        for (Map.Entry<String, Long> noiseHash : hashNoise().entrySet())
+            noiseLines.add(String.format("%s %016x", noiseHash.getKey(), noiseHash.getValue()));
+        Files.write(noiseFile.toPath(), noiseLines, StandardCharsets.UTF_8);
+        System.out.println("Recorded " + (noiseLines.size() - 2) + " golden noise hashes to " + noiseFile);
+        return true;
+    }
+
+    /**
+     * Generates every chunk and compares its hash to the golden hash, and the chunks of the equivalent presets to
+     * those of the default preset, reporting any differences.
+     * @return true if every chunk matches
+     */
+    private boolean check() throws IOException {
+        boolean noisePassed = checkNoise();
+        Map<String, Long> golden = readHashFile(goldenFile);
+        GoldenColumns goldenColumns = golden == null ? null : readColumnsFile();
+        int numChecked = 0, numMismatched = 0, numMissing = 0;
+
+        for (long seed : SEEDS) {
+            // Default output for this seed, which the equivalent presets are compared against
+            List<char[]> defaultChunks = new ArrayList<>();
+
+            for (Map.Entry<String, List<String>> preset : PRESETS.entrySet()) {
+                boolean isDefault = preset.getKey().equals("default");
+                if (golden == null && !isDefault)
+                    continue;
+
+                Generator generator = new Generator(preset.getValue(), seed);
+                for (int[] chunk : CHUNKS) {
+                    char[] data = generator.generate(chunk[0], chunk[1]);
+                    if (isDefault)
+                        defaultChunks.add(data.clone());
+                    if (golden == null)
+                        continue;
+
+                    String key = getKey(preset.getKey(), seed, chunk);
+                    Long goldenHash = golden.get(key);
+                    numChecked++;
+
+                    if (goldenHash == null) {
+                        numMissing++;
+                        System.out.println("MISSING  " + key + ": no golden hash");
+                        continue;
+                    }
+
+                    long hash = hash(data);
+                    if (hash == goldenHash)
+                        continue;
+
+                    numMismatched++;
+                    System.out.println(String.format("MISMATCH %s: expected %016x, got %016x", key, goldenHash, hash));
+                    String[] expected = goldenColumns == null ? null : goldenColumns.get(key);
+                    if (expected != null)
+                        reportDiff(expected, toNames(data));
+                    else
+                        System.out.println("  No golden columns for this chunk in " + columnsFile + ".");
+                }
+            }
+
+            for (Map.Entry<String, List<String>> preset : EQUIVALENT_PRESETS.entrySet()) {
+                Generator generator = new Generator(preset.getValue(), seed);
+                for (int i = 0; i < CHUNKS.size(); i++) {
+                    int[] chunk = CHUNKS.get(i);
+                    char[] data = generator.generate(chunk[0], chunk[1]);
+                    numChecked++;
+                    if (Arrays.equals(data, defaultChunks.get(i)))
+                        continue;
+
+                    numMismatched++;
+                    System.out.println("MISMATCH " + getKey(preset.getKey(), seed, chunk) + ": differs from default");
+                    reportDiff(toNames(defaultChunks.get(i)), toNames(data));
+                }
+            }
+        }
+
+        System.out.println(String.format("Checked %d chunks: %d mismatched, %d missing golden hashes",
+                numChecked, numMismatched, numMissing));
+        if (golden == null)
+            System.out.println("Golden file " + goldenFile + " not found, so only the noise and presets that must match the "
+                    + "default preset were checked. Record it in the dev environment with --record.");
+        return noisePassed && numMismatched == 0 && numMissing == 0;
+    }
+
+    /**
+     * Compares the hash of each stored sub-chunk's noise to its golden hash.
+     * @return true if every hash matches, or there is no golden noise file
+     */
+    private boolean checkNoise() throws IOException {
+        Map<String, Long> golden = readHashFile(noiseFile);
+        if (golden == null) {
+            System.out.println("Golden noise file " + noiseFile + " not found, so noise wasn't checked.");
+            return true;
+        }
+
+        int numChecked = 0, numMismatched = 0;
+        for (Map.Entry<String, Long> noiseHash : hashNoise().entrySet()) {
+            numChecked++;
+            Long goldenHash = golden.get(noiseHash.getKey());
+            if (goldenHash != null && goldenHash.longValue() == noiseHash.getValue())
+                continue;
+
+            numMismatched++;
+            if (goldenHash == null)
+                System.out.println("MISSING  noise " + noiseHash.getKey() + ": no golden hash");
+            else
+                System.out.println(String.format("MISMATCH noise %s: expected %016x, got %016x",
+                        noiseHash.getKey(), goldenHash, noiseHash.getValue()));
+        }
+
+        System.out.println(String.format("Checked %d noise sub-chunks: %d mismatched or missing", numChecked, numMismatched));
+        return numMismatched == 0;
+    }
+
+    /**
+     * Generates the noise of every stored sub-chunk, using the default noise generator of each cave and cavern type,
+     * and hashes it.
+     * @return noise hashes, by noise key
+     */
+    private static Map<String, Long> hashNoise() {
+        ConfigHolder config = new ConfigHolder();
+        Map<String, Long> hashes = new LinkedHashMap<>();
+        NoiseBuffer buffer = new NoiseBuffer(Settings.SUB_CHUNK_SIZE, Settings.SUB_CHUNK_SIZE, 0, 0, 1);
+        for (long seed : SEEDS) {
+            HeadlessWorld world = HeadlessWorld.create(seed);
+            Map<String, NoiseGen> noiseGens = new LinkedHashMap<>();
+            for (CaveType caveType : CaveType.values())
+                noiseGens.put(caveType.name(), new CaveCarverBuilder(world).ofTypeFromConfig(caveType, config).build().getNoiseGen());
+            for (CavernType cavernType : CavernType.values())
+                noiseGens.put(cavernType.name(), new CavernCarverBuilder(world).ofTypeFromConfig(cavernType, config).build().getNoiseGen());
+
+            for (Map.Entry<String, NoiseGen> noiseGen : noiseGens.entrySet()) {
+                for (int[] subChunk : NOISE_SUB_CHUNKS) {
+                    BlockPos startPos = new BlockPos(subChunk[0], 1, subChunk[1]);
+                    BlockPos endPos = startPos.add(Settings.SUB_CHUNK_SIZE - 1, 0, Settings.SUB_CHUNK_SIZE - 1);
+                    noiseGen.getValue().interpolateNoiseCube(startPos, endPos, NOISE_MIN_Y, NOISE_MAX_Y, buffer);
+                    String key = String.format("%s %d %d %d", noiseGen.getKey(), seed, subChunk[0], subChunk[1]);
+                    hashes.put(key, hashNoise(buffer));
+                }
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Hashes every noise value of a buffer, in x, z, y, generator order.
+     */
+    private static long hashNoise(NoiseBuffer buffer) {
+        long hash = 0xcbf29ce484222325L;
+        for (int x = 0; x < buffer.getSizeX(); x++)
+            for (int z = 0; z < buffer.getSizeZ(); z++)
+                for (int y = buffer.getMinY(); y <= buffer.getMaxY(); y++)
+                    for (int gen = 0; gen < buffer.getNumGens(); gen++) {
+                        hash ^= Double.doubleToLongBits(buffer.get(x, z, y, gen));
+                        hash *= 0x100000001b3L;
+                    }
+        return hash;
+    }
+
+    /**
+     * Reports which columns and y-levels differ between two chunks, and how.
+     * @param expected Expected block state name of each block, indexed like a primer's backing array
+     * @param actual Actual block state name of each block
+     */
+    private void reportDiff(String[] expected, String[] actual) {
+        int numColumns = 0, numBlocks = 0;
+        for (int localX = 0; localX < 16; localX++) {
+            for (int localZ = 0; localZ < 16; localZ++) {
+                List<String> ranges = new ArrayList<>();
+                int y = 0;
+                while (y < 256) {
+                    int index = ChunkPrimerAccess.index(localX, y, localZ);
+                    if (expected[index].equals(actual[index])) {
+                        y++;
+                        continue;
+                    }
+
+                    // Group consecutive y-levels with the same change
+                    String from = expected[index], to = actual[index];
+                    int startY = y;
+                    while (y < 256 && expected[ChunkPrimerAccess.index(localX, y, localZ)].equals(from)
+                            && actual[ChunkPrimerAccess.index(localX, y, localZ)].equals(to))
+                        y++;
+                    numBlocks += y - startY;
+                    ranges.add((y - 1 == startY ? "y " + startY : "y " + startY + "-" + (y - 1)) + " " + from + " -> " + to);
+                }
+
+                if (ranges.isEmpty())
+                    continue;
+                numColumns++;
+                if (numColumns <= maxColumns)
+                    System.out.println("  column (" + localX + ", " + localZ + "): " + String.join(", ", ranges));
+            }
+        }
+
+        if (numColumns > maxColumns)
+            System.out.println("  ... and " + (numColumns - maxColumns) + " more columns");
+        System.out.println("  " + numBlocks + " blocks changed in " + numColumns + " columns");
+    }
+
+    /**
+     * @return golden hashes by key, or null if the file doesn't exist
+     */
+    private static Map<String, Long> readHashFile(File file) throws IOException {
+        if (!file.exists())
+            return null;
+
+        Map<String, Long> golden = new HashMap<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            int split = line.lastIndexOf(' ');
+            golden.put(line.substring(0, split), Long.parseUnsignedLong(line.substring(split + 1), 16));
+        }
+        return golden;
+    }
+
+    private static String getKey(String preset, long seed, int[] chunk) {
+        return String.format("%s %d %d %d", preset, seed, chunk[0], chunk[1]);
+    }
+
+    /**
+     * Encodes a chunk's columns as runs of consecutive blocks with the same block state, column by column.
+     * Each column is its number of runs, followed by the name index and length of each run, all as varints.
+     * @param nameIndices Index of each block state name, shared by every chunk in a file. New names are added to it.
+     */
+    private byte[] encodeColumns(char[] data, Map<String, Integer> nameIndices) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<int[]> runs = new ArrayList<>();
+        for (int localX = 0; localX < 16; localX++) {
+            for (int localZ = 0; localZ < 16; localZ++) {
+                runs.clear();
+                int y = 0;
+                while (y < 256) {
+                    char id = data[ChunkPrimerAccess.index(localX, y, localZ)];
+                    int startY = y;
+                    while (y < 256 && data[ChunkPrimerAccess.index(localX, y, localZ)] == id)
+                        y++;
+                    String name = getStateName(id);
+                    Integer nameIndex = nameIndices.get(name);
+                    if (nameIndex == null) {
+                        nameIndex = nameIndices.size();
+                        nameIndices.put(name, nameIndex);
+                    }
+                    runs.add(new int[]{nameIndex, y - startY});
+                }
+
+                writeVarInt(bytes, runs.size());
+                for (int[] run : runs) {
+                    writeVarInt(bytes, run[0]);
+                    writeVarInt(bytes, run[1]);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the golden column file: the format version, the block state names, and each chunk's key and columns.
+     */
+    private void writeColumnsFile(Map<String, Integer> nameIndices, Map<String, byte[]> columns) throws IOException {
+        if (columnsFile.getParentFile() != null)
+            Files.createDirectories(columnsFile.getParentFile().toPath());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(columnsFile))))) {
+            out.writeInt(COLUMNS_FORMAT_VERSION);
+            out.writeInt(nameIndices.size());
+            for (String name : nameIndices.keySet())
+                out.writeUTF(name);
+            out.writeInt(columns.size());
+            for (Map.Entry<String, byte[]> chunk : columns.entrySet()) {
+                out.writeUTF(chunk.getKey());
+                out.writeInt(chunk.getValue().length);
+                out.write(chunk.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return the golden columns, or null if there is no golden column file
+     */
+    private GoldenColumns readColumnsFile() throws IOException {
+        if (!columnsFile.exists())
+            return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(columnsFile))))) {
+            int version = in.readInt();
+            if (version != COLUMNS_FORMAT_VERSION)
+                throw new IOException("Unsupported golden column file version " + version + " in " + columnsFile);
+
+            String[] names = new String[in.readInt()];
+            for (int i = 0; i < names.length; i++)
+                names[i] = in.readUTF();
+
+            Map<String, byte[]> chunks = new HashMap<>();
+            int numChunks = in.readInt();
+            for (int i = 0; i < numChunks; i++) {
+                String key = in.readUTF();
+                byte[] encoded = new byte[in.readInt()];
+                in.readFully(encoded);
+                chunks.put(key, encoded);
+            }
+            return new GoldenColumns(names, chunks);
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(ByteArrayInputStream in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+    }
+
+    /**
+     * @return the block state name of each block of a chunk, indexed like the chunk's data
+     */
+    private String[] toNames(char[] data) {
+        String[] names = new String[data.length];
+        for (int i = 0; i < data.length; i++)
+            names[i] = getStateName(data[i]);
+        return names;
+    }
+
+    /**
+     * Hashes a chunk's contents using the hash of each block state's name.
+     */
+    private long hash(char[] data) {
+        long hash = 0xcbf29ce484222325L;
+        for (char id : data) {
+            hash ^= id < stateHashes.length ? stateHashes[id] : id;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private void computeStateNames() {
+        int maxId = 0;
+        for (IBlockState blockState : Block.BLOCK_STATE_IDS)
+            maxId = Math.max(maxId, Block.BLOCK_STATE_IDS.get(blockState));
+
+        stateNames = new String[maxId + 1];
+        stateHashes = new long[maxId + 1];
+        for (int id = 0; id <= maxId; id++) {
+            stateNames[id] = getName((char) id);
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : stateNames[id].getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            stateHashes[id] = hash;
+        }
+    }
+
+    private String getStateName(char id) {
+        return id < stateNames.length ? stateNames[id] : getName(id);
+    }
+
+    private static String getName(char id) {
+        return ChunkPrimerAccess.getState(id).toString();
+    }
+
+    /**
+     * Golden columns read from a column file. Chunks are kept encoded, and only decoded when reporting a mismatch.
+     */
+    private static class GoldenColumns {
+        private final String[] names;
+        private final Map<String, byte[]> chunks;
+
+        GoldenColumns(String[] names, Map<String, byte[]> chunks) {
+            this.names = names;
+            this.chunks = chunks;
+        }
+
+        /**
+         * @return the block state name of each block of a chunk, indexed like a primer's backing array,
+         * or null if the chunk isn't stored
+         */
+        String[] get(String key) {
+            byte[] encoded = chunks.get(key);
+            if (encoded == null)
+                return null;
+
+            ByteArrayInputStream in = new ByteArrayInputStream(encoded);
+            String[] blocks = new String[65536];
+            for (int localX = 0; localX < 16; localX++) {
+                for (int localZ = 0; localZ < 16; localZ++) {
+                    int numRuns = readVarInt(in);
+                    int y = 0;
+                    for (int run = 0; run < numRuns; run++) {
+                        String name = names[readVarInt(in)];
+                        int length = readVarInt(in);
+                        for (int end = y + length; y < end; y++)
+                            blocks[ChunkPrimerAccess.index(localX, y, localZ)] = name;
+                    }
+                }
+            }
+            return blocks;
+        }
+    }
+
+    /**
+     * A world and carver for one seed and config preset.
+     */
+    private static class Generator {
+        private final HeadlessWorld world;
+        private final MapGenBetterCaves caveGen;
+        private final ChunkPrimer primer = new ChunkPrimer();
+
+        Generator(List<String> overrides, long seed) {
+            ConfigHolder config = ConfigOverrides.create(overrides);
+            world = HeadlessWorld.create(seed);
+            caveGen = new MapGenBetterCaves(new InitMapGenEvent(InitMapGenEvent.EventType.CAVE, new MapGenCaves()), config);
+        }
+
+        /**
+         * Generates a chunk from fresh synthetic terrain.
+         * @return the primer's contents. Only valid until the next chunk is generated.
+         */
+        char[] generate(int chunkX, int chunkZ) {
+            SyntheticTerrain.fill(primer, SyntheticTerrain.DEFAULT_SURFACE_HEIGHT);
+            caveGen.generate(world, chunkX, chunkZ, primer);
+            return ChunkPrimerAccess.getData(primer);
+        }
+    }
+}
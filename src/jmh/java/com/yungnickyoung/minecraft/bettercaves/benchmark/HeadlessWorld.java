@@ -0,0 +1,91 @@
+package com.yungnickyoung.minecraft.bettercaves.benchmark;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.profiler.Profiler;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.GameType;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldProviderSurface;
+import net.minecraft.world.WorldSettings;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.BiomeProvider;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.storage.WorldInfo;
+
+/**
+ * Minimal overworld used to run Better Caves generation outside of Minecraft.
+ * Provides a seed, a dimension and a real biome provider, which is everything the carvers need.
+ * No chunks are ever loaded, and nothing is saved.
+ *
+ * Vanilla biome generation keeps scratch space in static fields, so biome lookups are serialized across all headless
+ * worlds. This lets several threads generate chunks at once, in one world or in several.
+ */
+public class HeadlessWorld extends World {
+    private final BiomeProvider biomeProvider;
+
+    /**
+     * Registers vanilla blocks, items and biomes. Must be called before any Minecraft content is accessed.
+     * Safe to call more than once.
+     */
+    public static void bootstrap() {
+        Bootstrap.register();
+    }
+
+    /**
+     * Creates a new headless overworld, bootstrapping Minecraft first if necessary.
+     * @param seed World seed
+     * @return the world
+     */
+    public static HeadlessWorld create(long seed) {
+        bootstrap();
+        return new HeadlessWorld(seed);
+    }
+
+    private HeadlessWorld(long seed) {
+        super(null, new WorldInfo(new WorldSettings(seed, GameType.SURVIVAL, true, false, WorldType.DEFAULT), "bettercaves-headless"),
+                new WorldProviderSurface(), new Profiler(), false);
+        this.provider.setWorld(this);
+        this.biomeProvider = new SerializedBiomeProvider(getWorldInfo());
+    }
+
+    @Override
+    public BiomeProvider getBiomeProvider() {
+        return biomeProvider;
+    }
+
+    @Override
+    protected IChunkProvider createChunkProvider() {
+        return null;
+    }
+
+    @Override
+    protected boolean isChunkLoaded(int x, int z, boolean allowEmpty) {
+        return false;
+    }
+
+    /**
+     * Overworld biome provider that only performs one biome lookup at a time, across all instances.
+     */
+    private static class SerializedBiomeProvider extends BiomeProvider {
+        private static final Object LOCK = new Object();
+
+        SerializedBiomeProvider(WorldInfo info) {
+            super(info);
+        }
+
+        @Override
+        public Biome getBiome(BlockPos pos) {
+            synchronized (LOCK) {
+                return super.getBiome(pos);
+            }
+        }
+
+        @Override
+        public Biome[] getBiomes(Biome[] oldBiomeList, int x, int z, int width, int depth) {
+            synchronized (LOCK) {
+                return super.getBiomes(oldBiomeList, x, z, width, depth);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.yungnickyoung.minecraft.bettercaves.benchmark;
+
+import com.yungnickyoung.minecraft.bettercaves.world.MapGenBetterCaves;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.gen.MapGenCaves;
+import net.minecraftforge.event.terraingen.InitMapGenEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full Better Caves generation of a single chunk with the default config, from flat synthetic terrain.
+ * Each invocation generates the next chunk of a 32x32 chunk area, so that a mix of cave and cavern regions is covered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapGenBetterCavesBenchmark {
+    private static final int AREA_SIZE = 32;
+
+    @Param({"1234"})
+    public long seed;
+
+    private HeadlessWorld world;
+    private MapGenBetterCaves caveGen;
+    private ChunkPrimer primer = new ChunkPrimer();
+    private int i;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = HeadlessWorld.create(seed);
+        caveGen = new MapGenBetterCaves(new InitMapGenEvent(InitMapGenEvent.EventType.CAVE, new MapGenCaves()));
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        SyntheticTerrain.fill(primer, SyntheticTerrain.DEFAULT_SURFACE_HEIGHT);
+    }
+
+    @Benchmark
+    public ChunkPrimer generate() {
+        i++;
+        caveGen.generate(world, i % AREA_SIZE, (i / AREA_SIZE) % AREA_SIZE, primer);
+        return primer;
+    }
+}
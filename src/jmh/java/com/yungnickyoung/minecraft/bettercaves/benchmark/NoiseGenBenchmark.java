@@ -0,0 +1,68 @@
+package com.yungnickyoung.minecraft.bettercaves.benchmark;
+
+import com.yungnickyoung.minecraft.bettercaves.config.ConfigHolder;
+import com.yungnickyoung.minecraft.bettercaves.config.Settings;
+import com.yungnickyoung.minecraft.bettercaves.enums.CaveType;
+import com.yungnickyoung.minecraft.bettercaves.noise.NoiseBuffer;
+import com.yungnickyoung.minecraft.bettercaves.noise.NoiseGen;
+import com.yungnickyoung.minecraft.bettercaves.world.cave.builder.CaveCarverBuilder;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures NoiseGen column generation and sub-chunk noise cube interpolation,
+ * using the noise generators of each cave type with the default config.
+ * Each call moves to a new column or sub-chunk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoiseGenBenchmark {
+    @Param({"CUBIC", "SIMPLEX"})
+    public CaveType caveType;
+
+    @Param({"128"})
+    public int maxHeight;
+
+    private static final int MIN_HEIGHT = 1;
+
+    private NoiseGen noiseGen;
+    private NoiseBuffer columnBuffer;
+    private NoiseBuffer cubeBuffer;
+    private int i;
+
+    @Setup
+    public void setup() {
+        HeadlessWorld world = HeadlessWorld.create(1234);
+        ConfigHolder config = new ConfigHolder();
+        noiseGen = new CaveCarverBuilder(world)
+                .ofTypeFromConfig(caveType, config)
+                .build()
+                .getNoiseGen();
+        int numGens = caveType == CaveType.CUBIC ? config.cubicCaveNumGenerators.get() : config.simplexCaveNumGenerators.get();
+        columnBuffer = new NoiseBuffer(1, 1, MIN_HEIGHT, maxHeight, numGens);
+        cubeBuffer = new NoiseBuffer(Settings.SUB_CHUNK_SIZE, Settings.SUB_CHUNK_SIZE, 0, 0, 1);
+    }
+
+    @Benchmark
+    public NoiseBuffer generateNoiseColumn() {
+        i++;
+        noiseGen.generateNoiseColumn(i & 1023, i >> 10, MIN_HEIGHT, maxHeight, columnBuffer, 0, 0);
+        return columnBuffer;
+    }
+
+    @Benchmark
+    public NoiseBuffer interpolateNoiseCube() {
+        i++;
+        int x = (i & 255) * Settings.SUB_CHUNK_SIZE;
+        int z = (i >> 8) * Settings.SUB_CHUNK_SIZE;
+        BlockPos startPos = new BlockPos(x, 1, z);
+        BlockPos endPos = new BlockPos(x + Settings.SUB_CHUNK_SIZE - 1, 1, z + Settings.SUB_CHUNK_SIZE - 1);
+        return noiseGen.interpolateNoiseCube(startPos, endPos, MIN_HEIGHT, maxHeight, cubeBuffer);
+    }
+}
@@ -0,0 +1,56 @@
+package com.yungnickyoung.minecraft.bettercaves.benchmark;
+
+import com.yungnickyoung.minecraft.bettercaves.noise.INoiseLibrary;
+import com.yungnickyoung.minecraft.bettercaves.noise.OpenSimplex2S;
+import com.yungnickyoung.minecraft.bettercaves.noise.OpenSimplex2SFloat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single 3D OpenSimplex2S evaluation, configured as for simplex caves,
+ * with either the default double-precision or the single-precision implementation.
+ * Sample positions move every call so that results can't be folded into constants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenSimplex2SBenchmark {
+    @Param({"1", "2"})
+    public int octaves;
+
+    @Param({"false", "true"})
+    public boolean floatPrecision;
+
+    private INoiseLibrary noise;
+    private int i;
+
+    @Setup
+    public void setup() {
+        if (floatPrecision) {
+            OpenSimplex2SFloat floatNoise = new OpenSimplex2SFloat(1234);
+            floatNoise.setOctaves(octaves);
+            floatNoise.setGain(.3);
+            floatNoise.setFrequency(.025);
+            floatNoise.setLacunarity(2.0);
+            noise = floatNoise;
+        }
+        else {
+            OpenSimplex2S doubleNoise = new OpenSimplex2S(1234);
+            doubleNoise.setOctaves(octaves);
+            doubleNoise.setGain(.3);
+            doubleNoise.setFrequency(.025);
+            doubleNoise.setLacunarity(2.0);
+            noise = doubleNoise;
+        }
+    }
+
+    @Benchmark
+    public float getNoise() {
+        i++;
+        return noise.GetNoise(i & 1023, (i >> 10) & 127, i >> 17);
+    }
+}
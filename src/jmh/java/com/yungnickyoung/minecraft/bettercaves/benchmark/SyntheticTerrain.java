@@ -0,0 +1,57 @@
+package com.yungnickyoung.minecraft.bettercaves.benchmark;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.world.chunk.ChunkPrimer;
+
+/**
+ * Fills ChunkPrimers with simple, flat terrain for carving outside of Minecraft.
+ * Each column is bedrock at y = 0, stone up to three blocks below the surface, dirt, and a grass surface block.
+ */
+public class SyntheticTerrain {
+    private SyntheticTerrain() {} // Private constructor prevents instantiation
+
+    /** Default surface altitude, slightly above sea level */
+    public static final int DEFAULT_SURFACE_HEIGHT = 70;
+
+    /**
+     * @return a new ChunkPrimer filled with terrain up to the default surface altitude
+     */
+    public static ChunkPrimer newPrimer() {
+        ChunkPrimer primer = new ChunkPrimer();
+        fill(primer, DEFAULT_SURFACE_HEIGHT);
+        return primer;
+    }
+
+    /**
+     * Fills a ChunkPrimer with terrain, overwriting every block.
+     * @param primer The ChunkPrimer to fill
+     * @param surfaceHeight y-coordinate of the surface block of every column
+     */
+    public static void fill(ChunkPrimer primer, int surfaceHeight) {
+        IBlockState air = Blocks.AIR.getDefaultState();
+        IBlockState bedrock = Blocks.BEDROCK.getDefaultState();
+        IBlockState stone = Blocks.STONE.getDefaultState();
+        IBlockState dirt = Blocks.DIRT.getDefaultState();
+        IBlockState grass = Blocks.GRASS.getDefaultState();
+
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                for (int y = 0; y < 256; y++) {
+                    IBlockState blockState;
+                    if (y == 0)
+                        blockState = bedrock;
+                    else if (y < surfaceHeight - 3)
+                        blockState = stone;
+                    else if (y < surfaceHeight)
+                        blockState = dirt;
+                    else if (y == surfaceHeight)
+                        blockState = grass;
+                    else
+                        blockState = air;
+                    primer.setBlockState(x, y, z, blockState);
+                }
+            }
+        }
+    }
+}
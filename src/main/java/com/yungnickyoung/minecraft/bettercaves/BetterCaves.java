@@ -4,8 +4,8 @@ package com.yungnickyoung.minecraft.bettercaves;
 import com.yungnickyoung.minecraft.bettercaves.config.Settings;
 import com.yungnickyoung.minecraft.bettercaves.event.EventBetterCaveGen;
 import com.yungnickyoung.minecraft.bettercaves.event.EventRavineGen;
+import com.yungnickyoung.minecraft.bettercaves.event.EventWorldUnload;
 import com.yungnickyoung.minecraft.bettercaves.proxy.IProxy;
-import com.yungnickyoung.minecraft.bettercaves.world.MapGenBetterCaves;
 
 // Minecraft Forge API
 import net.minecraftforge.common.MinecraftForge;
@@ -20,7 +20,6 @@ import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
 
 /**
  * Entry point for Better Caves
@@ -28,12 +27,6 @@ import java.util.HashMap;
 @Mod(modid = Settings.MOD_ID, name = Settings.NAME, version = Settings.VERSION, useMetadata = Settings.USE_META_DATA, acceptableRemoteVersions = "*")
 public class BetterCaves {
 
-    /**
-     * Table of active Better Caves carvers. Maps dimension ID to its carver.
-     * We create separate carvers per dimension to allow for dimension-specific configuration.
-     */
-    public static HashMap<Integer, MapGenBetterCaves> activeCarversMap = new HashMap<>();
-
     /** File referring to the overarching directory for custom dimension configs **/
     public static File customConfigDir;
 
@@ -76,6 +69,7 @@ public class BetterCaves {
         // Register world generation events
         MinecraftForge.TERRAIN_GEN_BUS.register(new EventBetterCaveGen()); // Replace vanilla cave generation
         MinecraftForge.TERRAIN_GEN_BUS.register(new EventRavineGen()); // Disable vanilla ravine gen if enabled
+        MinecraftForge.EVENT_BUS.register(new EventWorldUnload()); // Drop carvers of unloaded worlds
         proxy.init(event);
     }
 
@@ -0,0 +1,83 @@
+package com.yungnickyoung.minecraft.bettercaves.command;
+
+import com.yungnickyoung.minecraft.bettercaves.util.BetterCavesUtil;
+import com.yungnickyoung.minecraft.bettercaves.world.CarverRegistry;
+import com.yungnickyoung.minecraft.bettercaves.world.GenerationMetrics;
+import com.yungnickyoung.minecraft.bettercaves.world.MapGenBetterCaves;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server command for inspecting Better Caves.
+ * /bettercaves stats - reports generation metrics for each active dimension
+ * /bettercaves stats reset - discards all recorded metrics
+ */
+public class CommandBetterCaves extends CommandBase {
+    @Override
+    public String getName() {
+        return "bettercaves";
+    }
+
+    @Override
+    public String getUsage(ICommandSender sender) {
+        return "/bettercaves stats [reset]";
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        return 2;
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+        if (args.length < 1 || args.length > 2 || !args[0].equals("stats"))
+            throw new WrongUsageException(getUsage(sender));
+
+        if (args.length == 2) {
+            if (!args[1].equals("reset"))
+                throw new WrongUsageException(getUsage(sender));
+            for (MapGenBetterCaves carver : CarverRegistry.getCarvers().values())
+                if (carver.getMetrics() != null)
+                    carver.getMetrics().reset();
+            sender.sendMessage(new TextComponentString("Better Caves generation metrics reset."));
+            return;
+        }
+
+        Map<Integer, MapGenBetterCaves> carvers = CarverRegistry.getCarvers();
+        if (carvers.isEmpty()) {
+            sender.sendMessage(new TextComponentString("No dimensions are using Better Caves."));
+            return;
+        }
+
+        for (Map.Entry<Integer, MapGenBetterCaves> entry : carvers.entrySet()) {
+            MapGenBetterCaves carver = entry.getValue();
+            GenerationMetrics metrics = carver.getMetrics();
+            sender.sendMessage(new TextComponentString("Dimension " + BetterCavesUtil.dimensionAsString(entry.getKey(), carver.dimensionName) + ":"));
+            if (metrics == null) {
+                sender.sendMessage(new TextComponentString("  Metrics disabled. Enable Generation Metrics in the debug settings to collect them."));
+                continue;
+            }
+            for (String line : metrics.report())
+                sender.sendMessage(new TextComponentString("  " + line));
+        }
+    }
+
+    @Override
+    public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos targetPos) {
+        if (args.length == 1)
+            return getListOfStringsMatchingLastWord(args, "stats");
+        if (args.length == 2 && args[0].equals("stats"))
+            return getListOfStringsMatchingLastWord(args, "reset");
+        return Collections.emptyList();
+    }
+}
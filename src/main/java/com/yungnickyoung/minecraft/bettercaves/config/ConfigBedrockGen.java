@@ -14,4 +14,11 @@ public class ConfigBedrockGen {
     @Config.RequiresWorldRestart
     @Config.RangeInt(min = 0, max = 256)
     public int bedrockWidth = 1;
+
+    @Config.Name("Bedrock Replacement Block")
+    @Config.Comment("The block that replaces the usual bedrock pattern above the flat bedrock layer. " +
+            "Set this per dimension to match its base block, e.g. minecraft:netherrack. " +
+            "Only works if Flatten Bedrock is true. Defaults to stone if an invalid block is given.")
+    @Config.RequiresWorldRestart
+    public String replacementBlock = "minecraft:stone";
 }
\ No newline at end of file
@@ -14,6 +14,13 @@ public class ConfigDebug {
             "Water Cavern: Lapis Block")
     public boolean debugVisualizer = false;
 
+    @Config.Name("Enable Generation Metrics")
+    @Config.Comment("Set this to true to time each stage of cave generation and count the blocks dug in every chunk." +
+            " The results can be viewed per dimension with the /bettercaves stats command." +
+            " Adds a small amount of overhead to cave generation, so leave this off unless you need it.")
+    @Config.RequiresWorldRestart
+    public boolean enableMetrics = false;
+
     public float debugCaveRegionFreq = .005f;
 
 }
@@ -49,6 +49,9 @@ public class ConfigHolder {
         maxCaveAltitude = new ConfigOption<>("Max Cave Altitude", Configuration.caveSettings.caves.maxCaveAltitude)
                 .setCategory("general.cave & cavern generation.caves")
                 .addToMap(properties);
+        enableAccurateSurfaceSampling = new ConfigOption<>("Enable Accurate Surface Sampling", Configuration.caveSettings.caves.enableAccurateSurfaceSampling)
+                .setCategory("general.cave & cavern generation.caves")
+                .addToMap(properties);
 
 
         // Cubic (Type 1) cave settings
@@ -167,11 +170,34 @@ public class ConfigHolder {
         bedrockWidth = new ConfigOption<>("Bedrock Layer Width", Configuration.bedrockSettings.bedrockWidth)
                 .setCategory("general.bedrock generation")
                 .addToMap(properties);
+        bedrockReplacementBlock = new ConfigOption<>("Bedrock Replacement Block", Configuration.bedrockSettings.replacementBlock)
+                .setCategory("general.bedrock generation")
+                .addToMap(properties);
+
+        // Performance settings
+        regionSampleSpacing = new ConfigOption<>("Region Noise Sample Spacing", Configuration.performanceSettings.regionSampleSpacing)
+                .setCategory("general.performance settings")
+                .addToMap(properties);
+        enableParallelGeneration = new ConfigOption<>("Enable Parallel Noise Generation", Configuration.performanceSettings.enableParallelGeneration)
+                .setCategory("general.performance settings")
+                .addToMap(properties);
+        enableLazyNoiseEvaluation = new ConfigOption<>("Enable Lazy Cave Noise Evaluation", Configuration.performanceSettings.enableLazyNoiseEvaluation)
+                .setCategory("general.performance settings")
+                .addToMap(properties);
+        useFloatSimplexNoise = new ConfigOption<>("Use Float Precision Simplex Noise", Configuration.performanceSettings.useFloatSimplexNoise)
+                .setCategory("general.performance settings")
+                .addToMap(properties);
+        validateFloatSimplexNoise = new ConfigOption<>("Validate Float Precision Simplex Noise", Configuration.performanceSettings.validateFloatSimplexNoise)
+                .setCategory("general.performance settings")
+                .addToMap(properties);
 
         // Debug settings
         debugVisualizer = new ConfigOption<>("Enable DEBUG Visualizer", Configuration.debugsettings.debugVisualizer)
                 .setCategory("general.debug settings")
                 .addToMap(properties);
+        enableMetrics = new ConfigOption<>("Enable Generation Metrics", Configuration.debugsettings.enableMetrics)
+                .setCategory("general.debug settings")
+                .addToMap(properties);
 
         /* ============================== Settings Hidden from User ============================== */
         // These are settings that are ordinarily hidden from users ...
@@ -344,6 +370,7 @@ public class ConfigHolder {
     public ConfigOption<Float>      caveRegionCustomSize;
     public ConfigOption<Integer>    surfaceCutoff;
     public ConfigOption<Integer>    maxCaveAltitude;
+    public ConfigOption<Boolean>    enableAccurateSurfaceSampling;
 
     // Cubic (Type 1) cave settings
     public ConfigOption<Integer>       cubicCaveBottom;
@@ -395,9 +422,18 @@ public class ConfigHolder {
     // Bedrock settings
     public ConfigOption<Boolean> flattenBedrock;
     public ConfigOption<Integer> bedrockWidth;
+    public ConfigOption<String>  bedrockReplacementBlock;
+
+    // Performance settings
+    public ConfigOption<RegionSampleSpacing> regionSampleSpacing;
+    public ConfigOption<Boolean> enableParallelGeneration;
+    public ConfigOption<Boolean> enableLazyNoiseEvaluation;
+    public ConfigOption<Boolean> useFloatSimplexNoise;
+    public ConfigOption<Boolean> validateFloatSimplexNoise;
 
     // Debug settings
     public ConfigOption<Boolean> debugVisualizer;
+    public ConfigOption<Boolean> enableMetrics;
 
     /* ============================== Settings Hidden from User ============================== */
     // These are settings that are ordinarily hidden from users ...
@@ -176,6 +176,8 @@ public class ConfigLoader {
                                                 target.set(WaterRegionFrequency.valueOf(prop.getString()));
                                             else if (target.type == FastNoise.NoiseType.class)
                                                 target.set(FastNoise.NoiseType.valueOf(prop.getString()));
+                                            else if (target.type == RegionSampleSpacing.class)
+                                                target.set(RegionSampleSpacing.valueOf(prop.getString()));
                                             else
                                                 target.set(prop.getString());
                                     }
@@ -0,0 +1,44 @@
+package com.yungnickyoung.minecraft.bettercaves.config;
+
+import com.yungnickyoung.minecraft.bettercaves.enums.RegionSampleSpacing;
+import net.minecraftforge.common.config.Config;
+
+public class ConfigPerformance {
+    @Config.Name("Region Noise Sample Spacing")
+    @Config.Comment("Spacing, in blocks, between the points at which the cave, cavern and water region noise is " +
+            "sampled in each chunk. Values for the columns in between are interpolated. Exact (the default) samples " +
+            "every column, while Two, Four, Eight and Sixteen sample every 2, 4, 8 or 16 blocks. Larger spacings " +
+            "generate chunks faster, but region borders may shift slightly compared to a world generated with exact " +
+            "sampling.")
+    @Config.RequiresWorldRestart
+    public RegionSampleSpacing regionSampleSpacing = RegionSampleSpacing.Exact;
+
+    @Config.Name("Enable Parallel Noise Generation")
+    @Config.Comment("Set to true to compute the cave and cavern noise for all parts of a chunk at once using " +
+            "multiple threads, before carving the chunk. Speeds up generation on servers with idle CPU cores, such " +
+            "as during world pre-generation. Generated caves are identical either way.")
+    @Config.RequiresWorldRestart
+    public boolean enableParallelGeneration = false;
+
+    @Config.Name("Use Float Precision Simplex Noise")
+    @Config.Comment("Set to true to generate Type 2 caves with a faster single-precision version of their noise " +
+            "function. Caves will differ very slightly from those generated with the default double-precision " +
+            "noise, so this should only be enabled for new worlds. Use Validate Float Precision Simplex Noise to " +
+            "see how large the difference is.")
+    @Config.RequiresWorldRestart
+    public boolean useFloatSimplexNoise = false;
+
+    @Config.Name("Validate Float Precision Simplex Noise")
+    @Config.Comment("Set to true to log the maximum difference between the single-precision and default Type 2 " +
+            "cave noise when a world is loaded. Only used if Use Float Precision Simplex Noise is enabled. " +
+            "Noise values range from roughly -1 to 1.")
+    @Config.RequiresWorldRestart
+    public boolean validateFloatSimplexNoise = false;
+
+    @Config.Name("Enable Lazy Cave Noise Evaluation")
+    @Config.Comment("Set to true to skip evaluating the second and later noise generators of Type 1 and Type 2 " +
+            "caves wherever the first generator already rules out digging, and to evaluate only as many cavern noise " +
+            "generators as needed to decide whether to dig. Generated caves and caverns are identical either way.")
+    @Config.RequiresWorldRestart
+    public boolean enableLazyNoiseEvaluation = true;
+}
@@ -25,6 +25,11 @@ public class Configuration {
     @Config.Comment("Configure how bedrock generates in the overworld and nether.")
     public static ConfigBedrockGen bedrockSettings = new ConfigBedrockGen();
 
+    @Config.Name("Performance Settings")
+    @Config.Comment("Options for speeding up generation. None of them change generated caves at their default " +
+            "values. Options that change caves when enabled say so in their descriptions.")
+    public static ConfigPerformance performanceSettings = new ConfigPerformance();
+
     @Config.Name("Debug settings")
     @Config.Comment("Don't mess with these settings for normal gameplay.")
     public static ConfigDebug debugsettings = new ConfigDebug();
@@ -51,4 +51,12 @@ public class ConfigCaves {
     @Config.RangeInt(min = 0, max = 255)
     @Config.RequiresWorldRestart
     public int maxCaveAltitude = 128;
+
+    @Config.Name("Enable Accurate Surface Sampling")
+    @Config.Comment("Set to true to estimate the surface height above each 4x4 area of a chunk from that area's " +
+            "own center column. By default, every area also samples the same column near the chunk's corner, so " +
+            "caves may close off too high or too low under uneven terrain. Enabling this changes generated caves, " +
+            "so it should only be enabled for new worlds.")
+    @Config.RequiresWorldRestart
+    public boolean enableAccurateSurfaceSampling = false;
 }
@@ -0,0 +1,8 @@
+package com.yungnickyoung.minecraft.bettercaves.enums;
+
+/**
+ * Enum used for the spacing, in blocks, between the columns at which region noise is sampled for Better Caves.
+ */
+public enum RegionSampleSpacing {
+    Exact, Two, Four, Eight, Sixteen
+}
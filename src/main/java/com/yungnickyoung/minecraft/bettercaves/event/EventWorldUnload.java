@@ -0,0 +1,26 @@
+package com.yungnickyoung.minecraft.bettercaves.event;
+
+import com.yungnickyoung.minecraft.bettercaves.config.Settings;
+import com.yungnickyoung.minecraft.bettercaves.util.BetterCavesUtil;
+import com.yungnickyoung.minecraft.bettercaves.world.CarverRegistry;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+/**
+ * Drops the Better Caves carver of a world when the world unloads, so that the carver's memory can be reclaimed.
+ * Should be registered to the {@code EVENT_BUS}.
+ */
+public class EventWorldUnload {
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        World world = event.getWorld();
+        if (world.isRemote)
+            return;
+
+        if (CarverRegistry.unregister(world)) {
+            Settings.LOGGER.info("Removed Better Caves carver for unloaded dimension " +
+                    BetterCavesUtil.dimensionAsString(world.provider.getDimension(), world.provider.getDimensionType().toString()));
+        }
+    }
+}
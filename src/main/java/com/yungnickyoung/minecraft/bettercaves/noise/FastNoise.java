@@ -56,6 +56,14 @@ public class FastNoise implements INoiseLibrary {
 
     private float m_gradientPerturbAmp = (float) (1.0 / 0.45);
 
+    // 3D noise function for the current noise type, fractal type and octave count, taking frequency-scaled coordinates.
+    // Bound whenever one of those settings changes, so GetNoise doesn't have to switch on them for every sample.
+    private interface Evaluator3D {
+        float Evaluate(float x, float y, float z);
+    }
+
+    private Evaluator3D m_evaluator3D;
+
     public FastNoise() {
         this(1337);
     }
@@ -64,6 +72,7 @@ public class FastNoise implements INoiseLibrary {
         m_seed = seed;
 
         CalculateFractalBounding();
+        BindEvaluator3D();
     }
 
     // Returns a 0 float/double
@@ -103,6 +112,7 @@ public class FastNoise implements INoiseLibrary {
     // Default: Simplex
     public void SetNoiseType(NoiseType noiseType) {
         m_noiseType = noiseType;
+        BindEvaluator3D();
     }
 
     // Sets octave count for all fractal noise types
@@ -110,6 +120,7 @@ public class FastNoise implements INoiseLibrary {
     public void SetFractalOctaves(int octaves) {
         m_octaves = octaves;
         CalculateFractalBounding();
+        BindEvaluator3D();
     }
 
     // Sets octave lacunarity for all fractal noise types
@@ -129,6 +140,7 @@ public class FastNoise implements INoiseLibrary {
     // Default: FBM
     public void SetFractalType(FractalType fractalType) {
         m_fractalType = fractalType;
+        BindEvaluator3D();
     }
 
     // Sets return type from cellular noise calculations
@@ -429,10 +441,32 @@ public class FastNoise implements INoiseLibrary {
     }
 
     public float GetNoise(float x, float y, float z) {
-        x *= m_frequency;
-        y *= m_frequency;
-        z *= m_frequency;
+        return m_evaluator3D.Evaluate(x * m_frequency, y * m_frequency, z * m_frequency);
+    }
 
+    // Chooses the 3D noise function used by GetNoise.
+    // The RigidMulti fractals used by the cave carvers get dedicated single-octave kernels,
+    // while everything else goes through the generic dispatch below.
+    private void BindEvaluator3D() {
+        if (m_noiseType == NoiseType.SimplexFractal && m_fractalType == FractalType.RigidMulti) {
+            if (m_octaves <= 1)
+                m_evaluator3D = (x, y, z) -> 1 - Math.abs(SingleSimplex(m_seed, x, y, z));
+            else
+                m_evaluator3D = this::SingleSimplexFractalRigidMulti;
+        }
+        else if (m_noiseType == NoiseType.CubicFractal && m_fractalType == FractalType.RigidMulti) {
+            if (m_octaves <= 1)
+                m_evaluator3D = (x, y, z) -> 1 - Math.abs(SingleCubic(m_seed, x, y, z));
+            else
+                m_evaluator3D = this::SingleCubicFractalRigidMulti;
+        }
+        else {
+            m_evaluator3D = this::SingleNoise;
+        }
+    }
+
+    // Generic 3D noise dispatch on noise type and fractal type. Coordinates must already be scaled by frequency.
+    private float SingleNoise(float x, float y, float z) {
         switch (m_noiseType) {
             case Value:
                 return SingleValue(m_seed, x, y, z);
@@ -502,6 +536,22 @@ public class FastNoise implements INoiseLibrary {
         }
     }
 
+    // Column of 3D noise values, with points at (x, (yStart + i) * yStep, z)
+    // Cubic noise hoists the x/z lattice hashing out of the loop over y; other types fall back to GetNoise
+    public void fillColumn(float x, float z, int yStart, int yCount, float yStep, float[] out, int offset) {
+        switch (m_noiseType) {
+            case Cubic:
+                FillCubicColumn(x * m_frequency, z * m_frequency, yStart, yCount, yStep, out, offset, 1);
+                return;
+            case CubicFractal:
+                FillCubicColumn(x * m_frequency, z * m_frequency, yStart, yCount, yStep, out, offset, m_octaves);
+                return;
+            default:
+                for (int i = 0; i < yCount; i++)
+                    out[offset + i] = GetNoise(x, (yStart + i) * yStep, z);
+        }
+    }
+
     public float GetNoise(float x, float y) {
         x *= m_frequency;
         y *= m_frequency;
@@ -1542,6 +1592,97 @@ public class FastNoise implements INoiseLibrary {
 
     private final static float CUBIC_3D_BOUNDING = 1 / (float) (1.5 * 1.5 * 1.5);
 
+    // Per-thread scratch space for the x/z lattice hashes of a column, reused by every column filled on the thread
+    private static final ThreadLocal<int[]> CUBIC_XZ_HASH = ThreadLocal.withInitial(() -> new int[16]);
+
+    // Octave-major evaluation of Cubic/CubicFractal noise for a column. x and z are already scaled by frequency.
+    // Partial sums are kept in out, so every value matches the scalar fractal functions exactly.
+    private void FillCubicColumn(float x, float z, int yStart, int yCount, float yStep, float[] out, int offset, int octaves) {
+        int[] xzHash = CUBIC_XZ_HASH.get();
+        int seed = m_seed;
+        float amp = 1;
+
+        for (int octave = 0; octave < Math.max(octaves, 1); octave++, seed++) {
+            if (octave > 0) {
+                x *= m_lacunarity;
+                z *= m_lacunarity;
+                amp *= m_gain;
+            }
+
+            int x1 = FastFloor(x);
+            int z1 = FastFloor(z);
+            float xs = x - (float) x1;
+            float zs = z - (float) z1;
+
+            // Hash of each x/z lattice pair, indexed by xi + 4 * zi for lattice offsets -1 to +2
+            for (int zi = 0; zi < 4; zi++)
+                for (int xi = 0; xi < 4; xi++)
+                    xzHash[xi + 4 * zi] = seed ^ (X_PRIME * (x1 - 1 + xi)) ^ (Z_PRIME * (z1 - 1 + zi));
+
+            for (int i = 0; i < yCount; i++) {
+                float y = (yStart + i) * yStep;
+                y *= m_frequency;
+                for (int j = 0; j < octave; j++)
+                    y *= m_lacunarity;
+
+                float value = SingleCubicColumnPoint(xzHash, xs, y, zs);
+
+                if (m_noiseType == NoiseType.Cubic) {
+                    out[offset + i] = value;
+                    continue;
+                }
+
+                switch (m_fractalType) {
+                    case FBM:
+                        out[offset + i] = octave == 0 ? value : out[offset + i] + value * amp;
+                        break;
+                    case Billow:
+                        out[offset + i] = octave == 0 ? Math.abs(value) * 2 - 1 : out[offset + i] + (Math.abs(value) * 2 - 1) * amp;
+                        break;
+                    case RigidMulti:
+                        out[offset + i] = octave == 0 ? 1 - Math.abs(value) : out[offset + i] - (1 - Math.abs(value)) * amp;
+                        break;
+                    default:
+                        out[offset + i] = 0;
+                }
+            }
+        }
+
+        if (m_noiseType == NoiseType.CubicFractal && (m_fractalType == FractalType.FBM || m_fractalType == FractalType.Billow))
+            for (int i = 0; i < yCount; i++)
+                out[offset + i] *= m_fractalBounding;
+    }
+
+    // Same as SingleCubic, using precomputed x/z lattice hashes from FillCubicColumn
+    private static float SingleCubicColumnPoint(int[] xzHash, float xs, float y, float zs) {
+        int y1 = FastFloor(y);
+        float ys = y - (float) y1;
+
+        int y0 = Y_PRIME * (y1 - 1);
+        int y2 = Y_PRIME * (y1 + 1);
+        int y3 = Y_PRIME * (y1 + 2);
+        y1 = Y_PRIME * y1;
+
+        return CubicLerp(
+                CubicLerp(CubicRow(xzHash, 0, y0, xs), CubicRow(xzHash, 0, y1, xs), CubicRow(xzHash, 0, y2, xs), CubicRow(xzHash, 0, y3, xs), ys),
+                CubicLerp(CubicRow(xzHash, 4, y0, xs), CubicRow(xzHash, 4, y1, xs), CubicRow(xzHash, 4, y2, xs), CubicRow(xzHash, 4, y3, xs), ys),
+                CubicLerp(CubicRow(xzHash, 8, y0, xs), CubicRow(xzHash, 8, y1, xs), CubicRow(xzHash, 8, y2, xs), CubicRow(xzHash, 8, y3, xs), ys),
+                CubicLerp(CubicRow(xzHash, 12, y0, xs), CubicRow(xzHash, 12, y1, xs), CubicRow(xzHash, 12, y2, xs), CubicRow(xzHash, 12, y3, xs), ys),
+                zs) * CUBIC_3D_BOUNDING;
+    }
+
+    // Cubic interpolation along x of the four lattice values in one row, given the row's y hash
+    private static float CubicRow(int[] xzHash, int rowStart, int yHash, float xs) {
+        return CubicLerp(ValHash(xzHash[rowStart] ^ yHash), ValHash(xzHash[rowStart + 1] ^ yHash),
+                ValHash(xzHash[rowStart + 2] ^ yHash), ValHash(xzHash[rowStart + 3] ^ yHash), xs);
+    }
+
+    // Same as ValCoord3D, given the combined hash of all coordinates
+    private static float ValHash(int n) {
+        return (n * n * n * 60493) / (float) 2147483648.0;
+    }
+
+
     private float SingleCubic(int seed, float x, float y, float z) {
         int x1 = FastFloor(x);
         int y1 = FastFloor(y);
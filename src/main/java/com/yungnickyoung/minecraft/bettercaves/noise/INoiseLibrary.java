@@ -1,8 +1,22 @@
 package com.yungnickyoung.minecraft.bettercaves.noise;
 
 /**
- * Tagging interface for noise libraries (FastNoise, OpenSimplex2S)
+ * Common interface for noise libraries (FastNoise, OpenSimplex2S)
  */
 public interface INoiseLibrary {
     float GetNoise(float x, float y, float z);
+
+    /**
+     * Computes noise values for a vertical column of points in a single call.
+     * Point i is located at (x, (yStart + i) * yStep, z), and its value is written to out[offset + i].
+     * Each value is identical to the one returned by {@link #GetNoise} for the same point.
+     * @param x x-coordinate of the column
+     * @param z z-coordinate of the column
+     * @param yStart Index of the first point along the y-axis
+     * @param yCount Number of points to compute
+     * @param yStep Distance between points along the y-axis
+     * @param out Array to write noise values to
+     * @param offset Index in out to write the first noise value to
+     */
+    void fillColumn(float x, float z, int yStart, int yCount, float yStep, float[] out, int offset);
 }
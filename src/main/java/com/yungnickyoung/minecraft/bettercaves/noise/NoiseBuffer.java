@@ -0,0 +1,186 @@
+package com.yungnickyoung.minecraft.bettercaves.noise;
+
+/**
+ * Flat, primitive storage for the noise values of a box of blocks.
+ * All values live in a single array indexed by (x, z, y, generator), with y measured from a fixed origin (minY).
+ * This replaces the boxed NoiseTuple/NoiseColumn/NoiseCube structures during generation; those classes
+ * now only act as views into a NoiseBuffer.
+ *
+ * Values are kept as doubles so that stored and interpolated values are identical to those produced by the
+ * old boxed structures.
+ */
+public class NoiseBuffer {
+    /** Number of columns along the x-axis */
+    private int sizeX;
+
+    /** Number of columns along the z-axis */
+    private int sizeZ;
+
+    /** Bottom y-coordinate covered by this buffer */
+    private int minY;
+
+    /** Top y-coordinate covered by this buffer */
+    private int maxY;
+
+    /** Number of y-values in each column */
+    private int height;
+
+    /** Number of noise values per block */
+    private int numGens;
+
+    /** Block x-coordinate of the column at local index x = 0 */
+    private int originX;
+
+    /** Block z-coordinate of the column at local index z = 0 */
+    private int originZ;
+
+    /** Backing array of noise values */
+    private double[] values;
+
+    /**
+     * @param sizeX Number of columns along the x-axis
+     * @param sizeZ Number of columns along the z-axis
+     * @param minY Bottom y-coordinate to store noise values for
+     * @param maxY Top y-coordinate to store noise values for
+     * @param numGens Number of noise values per block
+     */
+    public NoiseBuffer(int sizeX, int sizeZ, int minY, int maxY, int numGens) {
+        this.values = new double[0];
+        resize(sizeX, sizeZ, minY, maxY, numGens);
+    }
+
+    /**
+     * Changes the dimensions of this buffer. The backing array is only reallocated if it is too small to hold
+     * the new dimensions, so a buffer can be reused across sub-chunks without further allocation.
+     * Existing values should be treated as garbage after a resize.
+     * @param sizeX Number of columns along the x-axis
+     * @param sizeZ Number of columns along the z-axis
+     * @param minY Bottom y-coordinate to store noise values for
+     * @param maxY Top y-coordinate to store noise values for
+     * @param numGens Number of noise values per block
+     * @return this buffer
+     */
+    public NoiseBuffer resize(int sizeX, int sizeZ, int minY, int maxY, int numGens) {
+        this.sizeX = sizeX;
+        this.sizeZ = sizeZ;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.height = Math.max(0, maxY - minY + 1);
+        this.numGens = numGens;
+
+        int capacity = sizeX * sizeZ * height * numGens;
+        if (values.length < capacity)
+            values = new double[capacity];
+
+        return this;
+    }
+
+    /**
+     * Sets the block coordinates of the column at local index (0, 0).
+     * Carvers use this to locate a block column's noise values from its position.
+     * @param originX Block x-coordinate of the first column
+     * @param originZ Block z-coordinate of the first column
+     * @return this buffer
+     */
+    public NoiseBuffer setOrigin(int originX, int originZ) {
+        this.originX = originX;
+        this.originZ = originZ;
+        return this;
+    }
+
+    /**
+     * Computes the index of the first noise value for the block at the given local position.
+     * The noise values of the block are stored at this index and the following (numGens - 1) indices.
+     * No bounds checking is performed.
+     * @param x local x index of the column
+     * @param z local z index of the column
+     * @param y y-coordinate of the block
+     * @return index into the backing array
+     */
+    public int index(int x, int z, int y) {
+        return ((x * sizeZ + z) * height + (y - minY)) * numGens;
+    }
+
+    /**
+     * Retrieves a single noise value.
+     * @param x local x index of the column
+     * @param z local z index of the column
+     * @param y y-coordinate of the block
+     * @param gen index of the noise generator
+     * @return The noise value
+     * @throws IndexOutOfBoundsException if the position is out of this buffer's bounds
+     */
+    public double get(int x, int z, int y, int gen) throws IndexOutOfBoundsException {
+        checkBounds(x, z, y, gen);
+        return values[index(x, z, y) + gen];
+    }
+
+    /**
+     * Overwrites a single noise value.
+     * @param x local x index of the column
+     * @param z local z index of the column
+     * @param y y-coordinate of the block
+     * @param gen index of the noise generator
+     * @param value The new noise value
+     * @throws IndexOutOfBoundsException if the position is out of this buffer's bounds
+     */
+    public void set(int x, int z, int y, int gen, double value) throws IndexOutOfBoundsException {
+        checkBounds(x, z, y, gen);
+        values[index(x, z, y) + gen] = value;
+    }
+
+    /**
+     * Returns a NoiseColumn view of the column at the given local position.
+     * Changes made through the view are written to this buffer.
+     * @param x local x index of the column
+     * @param z local z index of the column
+     * @return NoiseColumn view
+     */
+    public NoiseColumn getColumn(int x, int z) {
+        if (x < 0 || x >= sizeX || z < 0 || z >= sizeZ)
+            throw new IndexOutOfBoundsException("No corresponding column in NoiseBuffer for x, z: " + x + ", " + z);
+
+        return new NoiseColumn(this, x, z);
+    }
+
+    /**
+     * @return The backing array of noise values. Use {@link #index} to locate values in it.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getNumGens() {
+        return numGens;
+    }
+
+    public int getOriginX() {
+        return originX;
+    }
+
+    public int getOriginZ() {
+        return originZ;
+    }
+
+    private void checkBounds(int x, int z, int y, int gen) {
+        if (x < 0 || x >= sizeX || z < 0 || z >= sizeZ || y < minY || y > maxY || gen < 0 || gen >= numGens)
+            throw new IndexOutOfBoundsException("No corresponding noise value in NoiseBuffer for position: "
+                    + x + ", " + y + ", " + z + " (generator " + gen + ")");
+    }
+}
@@ -3,36 +3,49 @@ package com.yungnickyoung.minecraft.bettercaves.noise;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * View of a single column of noise values in a {@link NoiseBuffer}.
+ * Kept for compatibility; generation code reads the buffer directly.
+ */
 public class NoiseColumn {
-    private Map<Integer, NoiseTuple> columnValues = new HashMap<>();
-    private int min = Integer.MAX_VALUE;
-    private int max = Integer.MIN_VALUE;
+    private NoiseBuffer buffer;
+    private int x;
+    private int z;
 
-    public NoiseColumn() {
+    /**
+     * @param buffer The buffer holding this column's values
+     * @param x local x index of the column in the buffer
+     * @param z local z index of the column in the buffer
+     */
+    NoiseColumn(NoiseBuffer buffer, int x, int z) {
+        this.buffer = buffer;
+        this.x = x;
+        this.z = z;
     }
 
     /**
-     * Adds a NoiseTuple to this column.
-     * @param y y-value of the new NoiseTuple
+     * Copies the values of a NoiseTuple into this column.
+     * @param y y-value of the new NoiseTuple. Must be within the bounds of the backing buffer.
      * @param noiseTuple the new NoiseTuple
+     * @throws IndexOutOfBoundsException if the y-value is out of this column's bounds
      */
-    public void put(int y, NoiseTuple noiseTuple) {
-        columnValues.put(y, noiseTuple);
-        if (y < min) min = y;
-        if (y > max) max = y;
+    public void put(int y, NoiseTuple noiseTuple) throws IndexOutOfBoundsException {
+        NoiseTuple target = get(y);
+        for (int i = 0; i < target.size(); i++)
+            target.set(i, noiseTuple.get(i));
     }
 
     /**
      * Retrieves the NoiseTuple at the specified y-value
      * @param y The y-value of the desired NoiseTuple
-     * @return The NoiseTuple at the given y-value
+     * @return The NoiseTuple at the given y-value, as a view into the backing buffer
      * @throws IndexOutOfBoundsException if the y-value is out of this column's bounds
      */
     public NoiseTuple get(int y) throws IndexOutOfBoundsException {
-        if (y < min || y > max)
+        if (y < buffer.getMinY() || y > buffer.getMaxY())
             throw new IndexOutOfBoundsException("No corresponding noise value in NoiseColumn for y-value: " + y);
 
-        return columnValues.get(y);
+        return new NoiseTuple(buffer.getValues(), buffer.index(x, z, y), buffer.getNumGens());
     }
 
     /**
@@ -40,6 +53,9 @@ public class NoiseColumn {
      * @return Map of y-coordinates to NoiseTuples.
      */
     public Map<Integer, NoiseTuple> getColumnValues() {
-        return this.columnValues;
+        Map<Integer, NoiseTuple> columnValues = new HashMap<>();
+        for (int y = buffer.getMinY(); y <= buffer.getMaxY(); y++)
+            columnValues.put(y, get(y));
+        return columnValues;
     }
 }
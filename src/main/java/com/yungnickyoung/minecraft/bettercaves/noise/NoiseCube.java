@@ -3,26 +3,27 @@ package com.yungnickyoung.minecraft.bettercaves.noise;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * View of a cube of noise values in a {@link NoiseBuffer}, as lists of NoiseColumns.
+ * Kept for compatibility; generation code reads the buffer directly.
+ */
 public class NoiseCube {
-    private List<List<NoiseColumn>> cubeValues = new ArrayList<>();
-    private int length;
+    private NoiseBuffer buffer;
 
-    public NoiseCube(int edgeLength) {
-        this.length = edgeLength;
-        for (int x = 0; x < length; x++) {
-            List<NoiseColumn> xLayer = new ArrayList<>();
-            for (int z = 0; z < length; z++) {
-                NoiseColumn col = new NoiseColumn();
-                xLayer.add(col);
-            }
-            cubeValues.add(xLayer);
-        }
+    /**
+     * @param buffer The buffer holding this cube's values
+     */
+    public NoiseCube(NoiseBuffer buffer) {
+        this.buffer = buffer;
     }
 
     public List<NoiseColumn> get(int index) throws IndexOutOfBoundsException {
-        if (index < 0 || index >= length)
+        if (index < 0 || index >= buffer.getSizeX())
             throw new IndexOutOfBoundsException("No corresponding noise value in Noise Tuple for index: " + index);
 
-        return cubeValues.get(index);
+        List<NoiseColumn> xLayer = new ArrayList<>();
+        for (int z = 0; z < buffer.getSizeZ(); z++)
+            xLayer.add(buffer.getColumn(index, z));
+        return xLayer;
     }
 }
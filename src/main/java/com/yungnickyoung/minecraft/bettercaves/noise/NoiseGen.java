@@ -4,31 +4,53 @@ import com.yungnickyoung.minecraft.bettercaves.config.Settings;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
-import javax.vecmath.Vector3f;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
- * Class used to generate NoiseTuples for blocks.
+ * Class used to generate noise values for blocks.
  * This class serves as an interface between Better Caves and FastNoise.
+ *
+ * A NoiseGen is configured once, before it is shared, and may then generate noise on several threads at once.
+ * Its generators are never modified after construction, and all scratch space is per-thread.
  */
 public class NoiseGen {
     /** Noise generation seed. Minecraft world seed should be used for reproducibility. */
-    private long seed;
+    private final long seed;
 
     /** Number of FastNoise functions to use. This will be the number of valuesin a NoiseTuple. Recommended: 2 */
-    private int numGenerators;
+    private final int numGenerators;
 
     /** Primary noise function parameters */
-    private NoiseSettings noiseSettings;
+    private final NoiseSettings noiseSettings;
 
     /** Determines how steep and tall caves are */
-    private float yCompression;
+    private final float yCompression;
     /** Determines how horizontally large and stretched out caves are */
-    private float xzCompression;
+    private final float xzCompression;
 
-    /** List of all primary noise generators, one for each octave */
-    private List<INoiseLibrary> listNoiseGens = new ArrayList<>();
+    /** All primary noise generators, one for each octave. Read-only once constructed. */
+    private final INoiseLibrary[] noiseGens;
+
+    /** Whether generators after the first are only evaluated where they can affect carving */
+    private boolean lazyEvaluation = false;
+
+    /** Whether every noise value is known to be between -1 and 1 */
+    private boolean isUnitBounded = false;
+
+    /** Margin by which a first generator value must fall below the threshold to skip the other generators */
+    private static final float LAZY_THRESHOLD_TOLERANCE = 1e-5f;
+
+    /** Per-thread scratch space for a single generator's column of noise values */
+    private static final ThreadLocal<float[]> columnScratch = ThreadLocal.withInitial(() -> new float[256]);
+
+    /** Per-thread scratch space marking the y-coordinates of a column at which a generator must be evaluated */
+    private static final ThreadLocal<boolean[]> neededScratch = ThreadLocal.withInitial(() -> new boolean[256]);
+
+    /** Per-thread scratch space for bounds on the magnitude of the products of a column's noise values */
+    private static final ThreadLocal<float[]> productBoundScratch = ThreadLocal.withInitial(() -> new float[256]);
+
+    /** Per-thread scratch space for the largest magnitude of a generator's noise values among the corner columns */
+    private static final ThreadLocal<float[]> magnitudeScratch = ThreadLocal.withInitial(() -> new float[256]);
 
     /**
      * @param world World this generaton function will be used in
@@ -41,12 +63,27 @@ public class NoiseGen {
      */
     public NoiseGen(World world, boolean isFastNoise, NoiseSettings noiseSettings,
                     int numGenerators, float yComp, float xzComp) {
+        this(world, isFastNoise, false, noiseSettings, numGenerators, yComp, xzComp);
+    }
+
+    /**
+     * @param world World this generaton function will be used in
+     * @param isFastNoise true if FastNoise, false if OpenSimplex2S
+     * @param isFloatSimplex true to use the single-precision OpenSimplex2S variant. Ignored if isFastNoise is true.
+     * @param noiseSettings Primary noise function parameters
+     * @param numGenerators Number of noise values to calculate per block. This number will be the number of noise
+     *                      values in each resultant NoiseTuple. Increasing this will impact performance.
+     * @param yComp y-compression factor
+     * @param xzComp xz-compression factor
+     */
+    public NoiseGen(World world, boolean isFastNoise, boolean isFloatSimplex, NoiseSettings noiseSettings,
+                    int numGenerators, float yComp, float xzComp) {
         this.seed = world.getSeed();
         this.noiseSettings = noiseSettings;
         this.numGenerators = numGenerators;
         this.yCompression = yComp;
         this.xzCompression = xzComp;
-        initializeNoiseGens(isFastNoise);
+        this.noiseGens = initializeNoiseGens(isFastNoise, isFloatSimplex);
     }
 
     /**
@@ -58,22 +95,44 @@ public class NoiseGen {
      * @return NoiseColumn
      */
     public NoiseColumn generateNoiseColumn(BlockPos blockPos, int minHeight, int maxHeight) {
-        int x = blockPos.getX();
-        int z = blockPos.getZ();
-        NoiseColumn noiseColumn = new NoiseColumn();
-
-        for (int y = minHeight; y <= maxHeight; y++) {
-            Vector3f f = new Vector3f(x * xzCompression, y * yCompression, z * xzCompression);
-
-            // Create NoiseTuple for this block
-            NoiseTuple newTuple = new NoiseTuple();
-            for (int i = 0; i < numGenerators; i++)
-                newTuple.put(listNoiseGens.get(i).GetNoise(f.x, f.y, f.z));
+        NoiseBuffer buffer = new NoiseBuffer(1, 1, minHeight, maxHeight, numGenerators)
+                .setOrigin(blockPos.getX(), blockPos.getZ());
+        generateNoiseColumn(blockPos.getX(), blockPos.getZ(), minHeight, maxHeight, buffer, 0, 0);
+        return buffer.getColumn(0, 0);
+    }
 
-            noiseColumn.put(y, newTuple);
+    /**
+     * Generate noise values for a column of blocks, writing them directly into a NoiseBuffer.
+     * @param x The x-coordinate of the column
+     * @param z The z-coordinate of the column
+     * @param minHeight The bottom y-coordinate to start generating noise values for
+     * @param maxHeight The top y-coordinate to stop generating noise values for
+     * @param out The buffer to write to. Must cover the range [minHeight, maxHeight].
+     * @param outX local x index of the column in the buffer
+     * @param outZ local z index of the column in the buffer
+     */
+    public void generateNoiseColumn(int x, int z, int minHeight, int maxHeight, NoiseBuffer out, int outX, int outZ) {
+        int height = maxHeight - minHeight + 1;
+        if (height <= 0)
+            return;
+
+        double[] values = out.getValues();
+        float xf = x * xzCompression;
+        float zf = z * xzCompression;
+
+        float[] column = columnScratch.get();
+        if (column.length < height) {
+            column = new float[height];
+            columnScratch.set(column);
         }
 
-        return noiseColumn;
+        // Evaluate each generator for the whole column at once, then interleave the values into the buffer
+        int start = out.index(outX, outZ, minHeight);
+        for (int i = 0; i < numGenerators; i++) {
+            noiseGens[i].fillColumn(xf, zf, minHeight, height, yCompression, column, 0);
+            for (int y = 0; y < height; y++)
+                values[start + y * numGenerators + i] = column[y];
+        }
     }
 
     /**
@@ -93,23 +152,25 @@ public class NoiseGen {
         int startY;
         int x = blockPos.getX();
         int z = blockPos.getZ();
-        NoiseColumn noiseColumn = new NoiseColumn();
+        float xf = x * xzCompression;
+        float zf = z * xzCompression;
+        NoiseBuffer buffer = new NoiseBuffer(1, 1, minHeight, maxHeight, numGenerators).setOrigin(x, z);
+        double[] values = buffer.getValues();
 
         // Calculate noise for every nth block in the column, using bilinear interpolation for the rest
         for (startY = minHeight; startY <= maxHeight; startY += subChunkSize) {
             int endY = Math.min(startY + subChunkSize - 1, maxHeight);
-            Vector3f subChunkStart = new Vector3f(x * xzCompression, startY * yCompression, z * xzCompression);
-            Vector3f subChunkEnd = new Vector3f(x * xzCompression, endY * yCompression, z * xzCompression);
+            int startIndex = buffer.index(0, 0, startY);
+            int endIndex = buffer.index(0, 0, endY);
 
-            // Create NoiseTuples for subchunk edge blocks
-            NoiseTuple startTuple = new NoiseTuple();
-            NoiseTuple endTuple = new NoiseTuple();
+            // Calculate noise values for subchunk edge blocks
             for (int i = 0; i < numGenerators; i++) {
-                startTuple.put(listNoiseGens.get(i).GetNoise(subChunkStart.x, subChunkStart.y, subChunkStart.z));
-                endTuple.put(listNoiseGens.get(i).GetNoise(subChunkEnd.x, subChunkEnd.y, subChunkEnd.z));
+                INoiseLibrary noiseGen = noiseGens[i];
+                double startNoise = noiseGen.GetNoise(xf, startY * yCompression, zf);
+                double endNoise = noiseGen.GetNoise(xf, endY * yCompression, zf);
+                values[startIndex + i] = startNoise;
+                values[endIndex + i] = endNoise;
             }
-            noiseColumn.put(startY, startTuple);
-            noiseColumn.put(endY, endTuple);
 
             // Fill in middle values via bilinear interpolation of edge values
             for (int y = startY + 1; y < endY; y++) {
@@ -121,19 +182,17 @@ public class NoiseGen {
                     startCoeff = Settings.START_COEFFS[y - startY];
                     endCoeff = Settings.END_COEFFS[y - startY];
                 }
-                NoiseTuple newTuple = startTuple
-                        .times(startCoeff)
-                        .plus(endTuple
-                                .times(endCoeff));
-                noiseColumn.put(y, newTuple);
+                int index = buffer.index(0, 0, y);
+                for (int i = 0; i < numGenerators; i++)
+                    values[index + i] = values[startIndex + i] * startCoeff + values[endIndex + i] * endCoeff;
             }
         }
 
-        return noiseColumn;
+        return buffer.getColumn(0, 0);
     }
 
     /**
-     * Generate NoiseTuples for a cube of blocks.
+     * Generate noise values for a cube of blocks.
      * Only columns of blocks at the four corners of each cube have noise values calculated for them.
      * Blocks in between have noise values estimated via a naive implementation of trilinear interpolation.
      * @param startPos Position of any block in the starting corner column of the cube.
@@ -142,83 +201,220 @@ public class NoiseGen {
      *                 This column must have x and z coordinates higher than that of startPos.
      * @param minHeight The bottom y-coordinate to start generating noise values for
      * @param maxHeight The top y-coordinate to stop generating noise values for
-     * @return NoiseCube
+     * @return NoiseBuffer holding the noise values of the cube, with its origin set to startPos
+     */
+    public NoiseBuffer interpolateNoiseCube(BlockPos startPos, BlockPos endPos, int minHeight, int maxHeight) {
+        int subChunkSize = endPos.getX() - startPos.getX() + 1;
+        NoiseBuffer cube = new NoiseBuffer(subChunkSize, subChunkSize, minHeight, maxHeight, numGenerators);
+        return interpolateNoiseCube(startPos, endPos, minHeight, maxHeight, cube);
+    }
+
+    /**
+     * Generate noise values for a cube of blocks, writing them into a caller-supplied buffer.
+     * Only columns of blocks at the four corners of each cube have noise values calculated for them.
+     * Blocks in between are interpolated in a single pass: for each x-slice and y-value, the two x-edge values
+     * are computed from the corners and the z-plane between them is filled immediately.
+     * No objects are allocated, so the same buffer can be reused for every sub-chunk.
+     * The results are identical to interpolating the x-edge planes first and the z-planes afterwards.
+     * @param startPos Position of any block in the starting corner column of the cube.
+     *                 This column must have x and z coordinates lower than that of endPos.
+     * @param endPos   Position of any block in the ending corner column of the cube.
+     *                 This column must have x and z coordinates higher than that of startPos.
+     * @param minHeight The bottom y-coordinate to start generating noise values for
+     * @param maxHeight The top y-coordinate to stop generating noise values for. If this is below minHeight,
+     *                  the cube is left empty.
+     * @param out The buffer to write to. It is resized to fit the cube and its origin is set to startPos.
+     * @return out
+     */
+    public NoiseBuffer interpolateNoiseCube(BlockPos startPos, BlockPos endPos, int minHeight, int maxHeight, NoiseBuffer out) {
+        int startX       = startPos.getX();
+        int endX         = endPos.getX();
+        int startZ       = startPos.getZ();
+        int endZ         = endPos.getZ();
+        int subChunkSize = endX - startX + 1;
+        int last         = subChunkSize - 1;
+
+        out.resize(subChunkSize, subChunkSize, minHeight, maxHeight, numGenerators).setOrigin(startX, startZ);
+        if (maxHeight < minHeight)
+            return out;
+
+        // Calculate noise values for four corner columns
+        generateNoiseColumn(startX, startZ, minHeight, maxHeight, out, 0, 0);
+        generateNoiseColumn(startX, endZ, minHeight, maxHeight, out, 0, last);
+        generateNoiseColumn(endX, startZ, minHeight, maxHeight, out, last, 0);
+        generateNoiseColumn(endX, endZ, minHeight, maxHeight, out, last, last);
+
+        interpolateCubeInterior(minHeight, maxHeight, out);
+        return out;
+    }
+
+    /**
+     * Generate noise values for a cube of blocks, writing them into a caller-supplied buffer.
+     * Identical to {@link #interpolateNoiseCube(BlockPos, BlockPos, int, int, NoiseBuffer)}, except that the
+     * thresholds of the cave carver the cube is for are used to skip noise evaluations that can't affect carving.
+     * With lazy evaluation, generators after the first are only evaluated at the y-coordinates where the first
+     * generator's values allow a block to be dug. Elsewhere their values are left undefined.
+     * Carving with the resulting cube digs the same blocks as carving with the exact cube.
+     * @param startPos Position of any block in the starting corner column of the cube.
+     *                 This column must have x and z coordinates lower than that of endPos.
+     * @param endPos   Position of any block in the ending corner column of the cube.
+     *                 This column must have x and z coordinates higher than that of startPos.
+     * @param minHeight The bottom y-coordinate to start generating noise values for
+     * @param maxHeight The top y-coordinate to stop generating noise values for
+     * @param out The buffer to write to. It is resized to fit the cube and its origin is set to startPos.
+     * @param thresholds The carver's noise thresholds, indexed by y-coordinate. Must be valid from minHeight to maxHeight.
+     * @param adjustRange Number of blocks below each block whose noise values the carver may mix into it
+     *                    when adjusting for headroom. 0 if y-adjustment is disabled. At most 2.
+     * @return out
      */
-    public NoiseCube interpolateNoiseCube(BlockPos startPos, BlockPos endPos, int minHeight, int maxHeight) {
-        float startCoeff, endCoeff;
+    public NoiseBuffer interpolateNoiseCube(BlockPos startPos, BlockPos endPos, int minHeight, int maxHeight,
+                                           NoiseBuffer out, float[] thresholds, int adjustRange) {
+        if (!lazyEvaluation || numGenerators <= 1 || maxHeight < minHeight)
+            return interpolateNoiseCube(startPos, endPos, minHeight, maxHeight, out);
+
         int startX       = startPos.getX();
         int endX         = endPos.getX();
         int startZ       = startPos.getZ();
         int endZ         = endPos.getZ();
         int subChunkSize = endX - startX + 1;
 
-        // Calculate noise tuples for four corner columns
-        NoiseColumn noisesX0Z0 =
-                generateNoiseColumn(new BlockPos(startX, 1, startZ), minHeight, maxHeight);
-        NoiseColumn noisesX0Z1 =
-                generateNoiseColumn(new BlockPos(startX, 1, endZ), minHeight, maxHeight);
-        NoiseColumn noisesX1Z0 =
-                generateNoiseColumn(new BlockPos(endX, 1, startZ), minHeight, maxHeight);
-        NoiseColumn noisesX1Z1 =
-                generateNoiseColumn(new BlockPos(endX, 1, endZ), minHeight, maxHeight);
-
-        // Initialize cube with 4 corner columns
-        NoiseCube cube = new NoiseCube(subChunkSize);
-        cube.get(0).set(0, noisesX0Z0);
-        cube.get(0).set(subChunkSize - 1, noisesX0Z1);
-        cube.get(subChunkSize - 1).set(0, noisesX1Z0);
-        cube.get(subChunkSize - 1).set(subChunkSize - 1, noisesX1Z1);
-
-        // Populate edge planes along x axis
-        for (int x = 1; x < subChunkSize - 1; x++) {
-            startCoeff = Settings.START_COEFFS[x];
-            endCoeff = Settings.END_COEFFS[x];
-
-            NoiseColumn xz0 = cube.get(x).get(0);
-            for (int y = minHeight; y <= maxHeight; y++) {
-                NoiseTuple startTuple = cube.get(0).get(0).get(y);
-                NoiseTuple endTuple = cube.get(subChunkSize - 1).get(0).get(y);
-                NoiseTuple newTuple = startTuple
-                        .times(startCoeff)
-                        .plus(endTuple
-                                .times(endCoeff));
-                xz0.put(y, newTuple);
-            }
+        out.resize(subChunkSize, subChunkSize, minHeight, maxHeight, numGenerators).setOrigin(startX, startZ);
+        generateLazyCornerColumns(startX, startZ, endX, endZ, minHeight, maxHeight, out, thresholds, adjustRange);
+        interpolateCubeInterior(minHeight, maxHeight, out);
+        return out;
+    }
 
-            NoiseColumn xz1 = cube.get(x).get(subChunkSize - 1);
-            for (int y = minHeight; y <= maxHeight; y++) {
-                NoiseTuple startTuple = cube.get(0).get(subChunkSize - 1).get(y);
-                NoiseTuple endTuple = cube.get(subChunkSize - 1).get(subChunkSize - 1).get(y);
-                NoiseTuple newTuple = startTuple
-                        .times(startCoeff)
-                        .plus(endTuple
-                                .times(endCoeff));
-                xz1.put(y, newTuple);
-            }
-        }
+    /**
+     * Generate noise values for a cube of blocks, writing them into a caller-supplied buffer.
+     * Identical to {@link #interpolateNoiseCube(BlockPos, BlockPos, int, int, NoiseBuffer)}, except that with lazy
+     * evaluation, for a carver that digs blocks whose product of noise values is below the threshold, each generator
+     * is only evaluated at the y-coordinates where the product of the previous generators' values doesn't already
+     * pass the threshold. Elsewhere its values are left undefined.
+     * This requires the carver to stop multiplying in values as soon as the product's magnitude passes the threshold,
+     * and is skipped unless every noise value is between -1 and 1.
+     * Carving with the resulting cube digs the same blocks as carving with the exact cube.
+     * @param startPos Position of any block in the starting corner column of the cube.
+     *                 This column must have x and z coordinates lower than that of endPos.
+     * @param endPos   Position of any block in the ending corner column of the cube.
+     *                 This column must have x and z coordinates higher than that of startPos.
+     * @param minHeight The bottom y-coordinate to start generating noise values for
+     * @param maxHeight The top y-coordinate to stop generating noise values for
+     * @param out The buffer to write to. It is resized to fit the cube and its origin is set to startPos.
+     * @param thresholds Noise thresholds, indexed by y-coordinate, no larger than the threshold of any column of the
+     *                   cube. Must be valid from minHeight to maxHeight.
+     * @return out
+     */
+    public NoiseBuffer interpolateProductNoiseCube(BlockPos startPos, BlockPos endPos, int minHeight, int maxHeight,
+                                                  NoiseBuffer out, float[] thresholds) {
+        if (!lazyEvaluation || !isUnitBounded || numGenerators <= 1 || maxHeight < minHeight)
+            return interpolateNoiseCube(startPos, endPos, minHeight, maxHeight, out);
+
+        int startX       = startPos.getX();
+        int endX         = endPos.getX();
+        int startZ       = startPos.getZ();
+        int endZ         = endPos.getZ();
+        int subChunkSize = endX - startX + 1;
+
+        out.resize(subChunkSize, subChunkSize, minHeight, maxHeight, numGenerators).setOrigin(startX, startZ);
+        generateLazyProductCornerColumns(startX, startZ, endX, endZ, minHeight, maxHeight, out, thresholds);
+        interpolateCubeInterior(minHeight, maxHeight, out);
+        return out;
+    }
+
+    /**
+     * Fills in the noise values of all blocks of a cube from the values of its four corner columns.
+     * For each x-slice and y-value, the two x-edge values are computed from the corners
+     * and the z-plane between them is filled immediately.
+     */
+    private void interpolateCubeInterior(int minHeight, int maxHeight, NoiseBuffer out) {
+        int subChunkSize = out.getSizeX();
+        int last         = subChunkSize - 1;
+        double[] values  = out.getValues();
+
+        // Distance between consecutive z-columns and x-slices in the backing array
+        int zStride = out.index(0, 1, minHeight) - out.index(0, 0, minHeight);
+        int xStride = out.index(1, 0, minHeight) - out.index(0, 0, minHeight);
 
-        // Populate rest of cube by interpolating the two edge planes
         for (int x = 0; x < subChunkSize; x++) {
-            for (int z = 1; z < subChunkSize - 1; z++) {
-                startCoeff = Settings.START_COEFFS[z];
-                endCoeff = Settings.END_COEFFS[z];
+            boolean isCornerX = x == 0 || x == last;
+            float xStartCoeff = Settings.START_COEFFS[x];
+            float xEndCoeff = Settings.END_COEFFS[x];
 
-                NoiseColumn xz = cube.get(x).get(z);
+            for (int y = minHeight; y <= maxHeight; y++) {
+                int cornerIndex = out.index(0, 0, y);
+                int edgeIndex = out.index(x, 0, y);
+
+                for (int i = 0; i < numGenerators; i++) {
+                    // Values along the z = 0 and z = last edges for this x
+                    double edgeStart, edgeEnd;
+                    if (isCornerX) {
+                        edgeStart = values[edgeIndex + i];
+                        edgeEnd = values[edgeIndex + last * zStride + i];
+                    } else {
+                        int x0 = cornerIndex + i;
+                        int x1 = cornerIndex + last * xStride + i;
+                        edgeStart = values[x0] * xStartCoeff + values[x1] * xEndCoeff;
+                        edgeEnd = values[x0 + last * zStride] * xStartCoeff + values[x1 + last * zStride] * xEndCoeff;
+                        values[edgeIndex + i] = edgeStart;
+                        values[edgeIndex + last * zStride + i] = edgeEnd;
+                    }
+
+                    // Fill in the z-plane between the two edges
+                    for (int z = 1; z < last; z++)
+                        values[edgeIndex + z * zStride + i] = edgeStart * Settings.START_COEFFS[z] + edgeEnd * Settings.END_COEFFS[z];
+                }
+            }
+        }
+    }
 
-                for (int y = minHeight; y <= maxHeight; y++) {
-                    NoiseTuple startTuple = cube.get(x).get(0).get(y);
-                    NoiseTuple endTuple = cube.get(x).get(subChunkSize - 1).get(y);
-                    NoiseTuple newTuple = startTuple
-                            .times(startCoeff)
-                            .plus(endTuple
-                                .times(endCoeff));
+    /**
+     * Enables lazy evaluation of noise cubes generated with carver thresholds, in which generators after the first
+     * are only evaluated where the first generator's values allow a block to be dug.
+     * @param lazyEvaluation true to enable lazy evaluation
+     */
+    public void setLazyEvaluation(boolean lazyEvaluation) {
+        this.lazyEvaluation = lazyEvaluation;
+    }
 
-                    xz.put(y, newTuple);
+    /**
+     * Measures how far the values of this NoiseGen's single-precision OpenSimplex2S generators deviate from those of
+     * the double-precision generators they replace, over a square area of columns.
+     * @param centerX x-coordinate of the center of the area
+     * @param centerZ z-coordinate of the center of the area
+     * @param radius Number of columns on each side of the center to sample along each axis
+     * @param minHeight The bottom y-coordinate to sample
+     * @param maxHeight The top y-coordinate to sample
+     * @return The maximum absolute difference between any two corresponding noise values,
+     *         or 0 if this NoiseGen doesn't use single-precision OpenSimplex2S generators
+     */
+    public float measureFloatSimplexDeviation(int centerX, int centerZ, int radius, int minHeight, int maxHeight) {
+        int height = maxHeight - minHeight + 1;
+        if (height <= 0)
+            return 0;
+
+        float[] actual = new float[height];
+        float[] expected = new float[height];
+        float maxDeviation = 0;
+
+        for (int i = 0; i < numGenerators; i++) {
+            INoiseLibrary noiseGen = noiseGens[i];
+            if (!(noiseGen instanceof OpenSimplex2SFloat))
+                continue;
+
+            OpenSimplex2S reference = createSimplexNoiseGen(i);
+            for (int x = centerX - radius; x <= centerX + radius; x++) {
+                for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                    float xf = x * xzCompression;
+                    float zf = z * xzCompression;
+                    noiseGen.fillColumn(xf, zf, minHeight, height, yCompression, actual, 0);
+                    reference.fillColumn(xf, zf, minHeight, height, yCompression, expected, 0);
+                    for (int y = 0; y < height; y++)
+                        maxDeviation = Math.max(maxDeviation, Math.abs(actual[y] - expected[y]));
                 }
             }
         }
 
-        return cube;
+        return maxDeviation;
     }
 
     /* ------------------------- Public Getters -------------------------*/
@@ -226,11 +422,193 @@ public class NoiseGen {
         return seed;
     }
 
+    /**
+     * @return true if every noise value is known to be between -1 and 1
+     */
+    public boolean isUnitBounded() {
+        return isUnitBounded;
+    }
+
     /* ------------------------- Private Methods -------------------------*/
+    /**
+     * Writes the noise values of the four corner columns of a noise cube into a NoiseBuffer, evaluating generators
+     * after the first only at the y-coordinates where they can affect carving.
+     *
+     * A block in the cube can only be dug, or raise the noise of the blocks above it through y-adjustment, if its
+     * first generator's value passes the threshold. Since the values of the blocks in between are interpolated from
+     * the corners, this requires the value of at least one corner to pass. The other generators are therefore only
+     * needed at a y-coordinate if a corner's first generator passes there, or at one of the adjustRange blocks below.
+     * The comparison allows for rounding error in the interpolation.
+     */
+    private void generateLazyCornerColumns(int startX, int startZ, int endX, int endZ, int minHeight, int maxHeight,
+                                           NoiseBuffer out, float[] thresholds, int adjustRange) {
+        int height = maxHeight - minHeight + 1;
+        if (height <= 0)
+            return;
+
+        double[] values = out.getValues();
+        float[] column = columnScratch.get();
+        if (column.length < height) {
+            column = new float[height];
+            columnScratch.set(column);
+        }
+
+        // Evaluate the first generator for every block, marking the y-coordinates where the others are needed
+        boolean[] isNeeded = neededScratch.get();
+        if (isNeeded.length < height) {
+            isNeeded = new boolean[height];
+            neededScratch.set(isNeeded);
+        }
+        Arrays.fill(isNeeded, 0, height, false);
+
+        // Corner c is at x = startX for c < 2 and endX otherwise, and at z = startZ for even c and endZ otherwise
+        for (int c = 0; c < 4; c++) {
+            int cornerX = c < 2 ? startX : endX;
+            int cornerZ = (c & 1) == 0 ? startZ : endZ;
+            int start = out.index(cornerX - startX, cornerZ - startZ, minHeight);
+            noiseGens[0].fillColumn(cornerX * xzCompression, cornerZ * xzCompression, minHeight, height, yCompression, column, 0);
+            for (int y = 0; y < height; y++) {
+                values[start + y * numGenerators] = column[y];
+
+                // Written to fail only if the value is clearly below the threshold, so that NaN thresholds pass
+                if (!(column[y] < thresholds[minHeight + y] - LAZY_THRESHOLD_TOLERANCE)) {
+                    for (int above = y; above <= Math.min(y + adjustRange, height - 1); above++)
+                        isNeeded[above] = true;
+                }
+            }
+        }
+
+        // Evaluate the other generators over each run of consecutive needed y-coordinates
+        int runStart = 0;
+        while (runStart < height) {
+            if (!isNeeded[runStart]) {
+                runStart++;
+                continue;
+            }
+
+            int runEnd = runStart;
+            while (runEnd + 1 < height && isNeeded[runEnd + 1])
+                runEnd++;
+
+            int runLength = runEnd - runStart + 1;
+            for (int c = 0; c < 4; c++) {
+                int cornerX = c < 2 ? startX : endX;
+                int cornerZ = (c & 1) == 0 ? startZ : endZ;
+                int start = out.index(cornerX - startX, cornerZ - startZ, minHeight + runStart);
+                float xf = cornerX * xzCompression;
+                float zf = cornerZ * xzCompression;
+                for (int i = 1; i < numGenerators; i++) {
+                    noiseGens[i].fillColumn(xf, zf, minHeight + runStart, runLength, yCompression, column, 0);
+                    for (int y = 0; y < runLength; y++)
+                        values[start + y * numGenerators + i] = column[y];
+                }
+            }
+
+            runStart = runEnd + 1;
+        }
+    }
+
+    /**
+     * Writes the noise values of the four corner columns of a noise cube into a NoiseBuffer, evaluating each
+     * generator only at the y-coordinates where the product of the previous generators' values can still fail
+     * the threshold check.
+     *
+     * Every value in the cube is interpolated from the corners with non-negative weights summing to 1, so its magnitude
+     * is at most the largest magnitude among the four corners. The magnitude of a block's product of the first k
+     * generators' values is therefore at most the product of those largest magnitudes. Once that bound is below the
+     * threshold, the carver stops multiplying before reaching generator k. The comparison allows for rounding error.
+     */
+    private void generateLazyProductCornerColumns(int startX, int startZ, int endX, int endZ, int minHeight, int maxHeight,
+                                                  NoiseBuffer out, float[] thresholds) {
+        int height = maxHeight - minHeight + 1;
+        if (height <= 0)
+            return;
+
+        double[] values = out.getValues();
+        float[] column = columnScratch.get();
+        if (column.length < height) {
+            column = new float[height];
+            columnScratch.set(column);
+        }
+
+        boolean[] isNeeded = neededScratch.get();
+        if (isNeeded.length < height) {
+            isNeeded = new boolean[height];
+            neededScratch.set(isNeeded);
+        }
+
+        // Bound on the magnitude of the product of the generators evaluated so far, for each y-coordinate
+        float[] productBound = productBoundScratch.get();
+        if (productBound.length < height) {
+            productBound = new float[height];
+            productBoundScratch.set(productBound);
+        }
+        Arrays.fill(productBound, 0, height, 1);
+
+        float[] maxMagnitude = magnitudeScratch.get();
+        if (maxMagnitude.length < height) {
+            maxMagnitude = new float[height];
+            magnitudeScratch.set(maxMagnitude);
+        }
+
+        for (int i = 0; i < numGenerators; i++) {
+            // The first generator is always needed, since the carver multiplies it in before checking the threshold.
+            // Written to fail only if the bound is clearly below the threshold, so that NaN thresholds pass.
+            boolean anyNeeded = false;
+            for (int y = 0; y < height; y++) {
+                isNeeded[y] = i == 0 || !(productBound[y] < thresholds[minHeight + y] - LAZY_THRESHOLD_TOLERANCE);
+                anyNeeded |= isNeeded[y];
+            }
+            if (!anyNeeded)
+                break;
+
+            // Evaluate this generator over each run of consecutive needed y-coordinates
+            int runStart = 0;
+            while (runStart < height) {
+                if (!isNeeded[runStart]) {
+                    runStart++;
+                    continue;
+                }
+
+                int runEnd = runStart;
+                while (runEnd + 1 < height && isNeeded[runEnd + 1])
+                    runEnd++;
+
+                int runLength = runEnd - runStart + 1;
+                Arrays.fill(maxMagnitude, 0, runLength, 0);
+                for (int c = 0; c < 4; c++) {
+                    int cornerX = c < 2 ? startX : endX;
+                    int cornerZ = (c & 1) == 0 ? startZ : endZ;
+                    int start = out.index(cornerX - startX, cornerZ - startZ, minHeight + runStart);
+                    noiseGens[i].fillColumn(cornerX * xzCompression, cornerZ * xzCompression, minHeight + runStart, runLength, yCompression, column, 0);
+                    for (int y = 0; y < runLength; y++) {
+                        values[start + y * numGenerators + i] = column[y];
+                        maxMagnitude[y] = Math.max(maxMagnitude[y], Math.abs(column[y]));
+                    }
+                }
+                for (int y = 0; y < runLength; y++)
+                    productBound[runStart + y] *= maxMagnitude[y];
+
+                runStart = runEnd + 1;
+            }
+        }
+    }
+
     /**
      * Initialize fractal noise generators.
+     * @return the generators, one for each noise value per block
      */
-    private void initializeNoiseGens(boolean isFastNoise) {
+    private INoiseLibrary[] initializeNoiseGens(boolean isFastNoise, boolean isFloatSimplex) {
+        // Single-octave ridged multifractal noise is 1 minus the magnitude of a gradient or value noise
+        FastNoise.NoiseType noiseType = noiseSettings.getNoiseType();
+        isUnitBounded = isFastNoise
+                && noiseSettings.getFractalType() == FastNoise.FractalType.RigidMulti
+                && noiseSettings.getOctaves() <= 1
+                && (noiseType == FastNoise.NoiseType.ValueFractal || noiseType == FastNoise.NoiseType.PerlinFractal
+                    || noiseType == FastNoise.NoiseType.SimplexFractal || noiseType == FastNoise.NoiseType.CubicFractal);
+
+        INoiseLibrary[] noiseGens = new INoiseLibrary[numGenerators];
+
         if (isFastNoise) {
             for (int i = 0; i < numGenerators; i++) {
                 FastNoise noiseGen = new FastNoise();
@@ -240,18 +618,37 @@ public class NoiseGen {
                 noiseGen.SetFractalOctaves(noiseSettings.getOctaves());
                 noiseGen.SetFractalGain(noiseSettings.getGain());
                 noiseGen.SetFrequency(noiseSettings.getFrequency());
-                listNoiseGens.add(noiseGen);
+                noiseGens[i] = noiseGen;
             }
         }
-        else {
+        else if (isFloatSimplex) {
             for (int i = 0; i < numGenerators; i++) {
-                OpenSimplex2S noiseGen = new OpenSimplex2S(seed + (1111 * (i + 1)));
+                OpenSimplex2SFloat noiseGen = new OpenSimplex2SFloat(seed + (1111 * (i + 1)));
                 noiseGen.setGain(noiseSettings.getGain());
                 noiseGen.setOctaves(noiseSettings.getOctaves());
                 noiseGen.setFrequency(noiseSettings.getFrequency());
                 noiseGen.setLacunarity(2.0);
-                listNoiseGens.add(noiseGen);
+                noiseGens[i] = noiseGen;
             }
         }
+        else {
+            for (int i = 0; i < numGenerators; i++) {
+                noiseGens[i] = createSimplexNoiseGen(i);
+            }
+        }
+
+        return noiseGens;
+    }
+
+    /**
+     * Creates the double-precision OpenSimplex2S generator for the given generator index.
+     */
+    private OpenSimplex2S createSimplexNoiseGen(int i) {
+        OpenSimplex2S noiseGen = new OpenSimplex2S(seed + (1111 * (i + 1)));
+        noiseGen.setGain(noiseSettings.getGain());
+        noiseGen.setOctaves(noiseSettings.getOctaves());
+        noiseGen.setFrequency(noiseSettings.getFrequency());
+        noiseGen.setLacunarity(2.0);
+        return noiseGen;
     }
 }
@@ -1,48 +1,73 @@
 package com.yungnickyoung.minecraft.bettercaves.noise;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * An n-tuple of noise values represented as floats.
- * The value of n may change dynamically and differ by instance.
+ * An n-tuple of noise values represented as doubles.
+ * A tuple either owns its values or is a view into a {@link NoiseBuffer}, in which case its size is fixed and
+ * any changes are written through to the buffer.
  * This class supports basic put, get, and set operations.
  */
 public class NoiseTuple {
-    private List<Double> noiseValues = new ArrayList<>();
-    private int length = 0;
+    private double[] noiseValues;
+    private int offset;
+    private int length;
+
+    /** Whether this tuple is a fixed-size view into a NoiseBuffer */
+    private boolean isView;
 
     /**
      *
-     * @param vals Variable-length array of float values to initialize the tuple with
+     * @param vals Variable-length array of double values to initialize the tuple with
      */
     public NoiseTuple(double... vals) {
-        for (double val : vals) {
-            noiseValues.add(val);
-            length++;
-        }
+        this.noiseValues = Arrays.copyOf(vals, Math.max(vals.length, 2));
+        this.offset = 0;
+        this.length = vals.length;
+        this.isView = false;
+    }
+
+    /**
+     * Creates a view of the noise values of a single block in a NoiseBuffer.
+     * @param values The backing array of the buffer
+     * @param offset Index of the first noise value of the block
+     * @param length Number of noise values of the block
+     */
+    NoiseTuple(double[] values, int offset, int length) {
+        this.noiseValues = values;
+        this.offset = offset;
+        this.length = length;
+        this.isView = true;
     }
 
     /**
      * Appends the specified noise value to the end of this tuple.
      * @param val Noise value to be appended to this tuple.
+     * @throws UnsupportedOperationException if this tuple is a view into a NoiseBuffer
      */
     public void put(double val) {
-        noiseValues.add(val);
-        length++;
+        if (isView)
+            throw new UnsupportedOperationException("Cannot append to a NoiseTuple backed by a NoiseBuffer");
+
+        if (length == noiseValues.length)
+            noiseValues = Arrays.copyOf(noiseValues, length * 2);
+
+        noiseValues[length++] = val;
     }
 
     /**
      * Retrieves the noise value at the specified index
-     * @param index The index of the desired float value
-     * @return The float value of the noise at the given index
+     * @param index The index of the desired double value
+     * @return The double value of the noise at the given index
      * @throws IndexOutOfBoundsException if the index is out of this tuple's bounds
      */
     public double get(int index) throws IndexOutOfBoundsException {
         if (index < 0 || index >= length)
             throw new IndexOutOfBoundsException("No corresponding noise value in Noise Tuple for index: " + index);
 
-        return noiseValues.get(index);
+        return noiseValues[offset + index];
     }
 
     /**
@@ -55,13 +80,13 @@ public class NoiseTuple {
         if (index < 0 || index >= length)
             throw new IndexOutOfBoundsException("No corresponding noise value in Noise Tuple for index: " + index);
 
-        noiseValues.set(index, newValue);
+        noiseValues[offset + index] = newValue;
     }
 
     public NoiseTuple times(float magnitude) {
         NoiseTuple result = new NoiseTuple();
         for (int i = 0; i < length; i++) {
-            result.put(noiseValues.get(i) * magnitude);
+            result.put(noiseValues[offset + i] * magnitude);
         }
         return result;
     }
@@ -69,17 +94,21 @@ public class NoiseTuple {
     public NoiseTuple plus(NoiseTuple other) {
         NoiseTuple result = new NoiseTuple();
         for (int i = 0; i < length; i++) {
-            result.put(noiseValues.get(i) + other.get(i));
+            result.put(noiseValues[offset + i] + other.get(i));
         }
         return result;
     }
 
     /**
-     * Retrieves all the noise values of this tuple as a List of Floats
-     * @return {@code List<Float>} of all noise values in this tuple
+     * Retrieves all the noise values of this tuple as a List of Doubles.
+     * The returned list is a copy; changes to it are not reflected in this tuple.
+     * @return {@code List<Double>} of all noise values in this tuple
      */
     public List<Double> getNoiseValues() {
-        return noiseValues;
+        List<Double> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+            list.add(noiseValues[offset + i]);
+        return list;
     }
 
     /**
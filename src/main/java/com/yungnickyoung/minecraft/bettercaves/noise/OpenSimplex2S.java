@@ -195,6 +195,48 @@ public class OpenSimplex2S implements INoiseLibrary {
         return sum;
     }
 
+    /**
+     * Computes the noise for a column of points, equivalent to calling GetNoise for each point.
+     * The x/z parts of the lattice re-orientation in noise3_XZBeforeY are computed once per octave
+     * rather than once per point.
+     */
+    public void fillColumn(float x, float z, int yStart, int yCount, float yStep, float[] out, int offset) {
+        x *= frequency;
+        z *= frequency;
+        float amp = 1;
+
+        // The first octave is always evaluated, as in GetNoise
+        for (int octave = 0; octave < Math.max(octaves, 1); octave++) {
+            if (octave > 0) {
+                x *= lacunarity;
+                z *= lacunarity;
+                amp *= gain;
+            }
+
+            // Per-column part of noise3_XZBeforeY
+            double xz = (double)x + (double)z;
+            double s2 = xz * -0.211324865405187;
+            double xs2 = x + s2;
+            double zs2 = z + s2;
+            double xzr = xz * 0.577350269189626;
+
+            for (int i = 0; i < yCount; i++) {
+                float y = (yStart + i) * yStep;
+                y *= frequency;
+                for (int j = 0; j < octave; j++)
+                    y *= lacunarity;
+
+                double yy = y * 0.577350269189626;
+                float value = 1 - (float)Math.abs(noise3_BCC(xs2 - yy, xzr + yy, zs2 - yy));
+
+                if (octave == 0)
+                    out[offset + i] = value;
+                else
+                    out[offset + i] -= value * amp;
+            }
+        }
+    }
+
     public void setOctaves(int octaves) {
         this.octaves = octaves;
     }
@@ -263,7 +305,7 @@ public class OpenSimplex2S implements INoiseLibrary {
      */
 
     private static final LatticePoint2D[] LOOKUP_2D;
-    private static final LatticePoint3D[] LOOKUP_3D;
+    static final LatticePoint3D[] LOOKUP_3D;
     static {
         LOOKUP_2D = new LatticePoint2D[8 * 4];
         LOOKUP_3D = new LatticePoint3D[8];
@@ -360,7 +402,7 @@ public class OpenSimplex2S implements INoiseLibrary {
         }
     }
 
-    private static class LatticePoint3D {
+    static class LatticePoint3D {
         public double dxr, dyr, dzr;
         public int xrv, yrv, zrv;
         LatticePoint3D nextOnFailure, nextOnSuccess;
@@ -391,7 +433,7 @@ public class OpenSimplex2S implements INoiseLibrary {
     public static final double N2 = 0.05481866495625118;
     public static final double N3 = 0.2781926117527186;
     private static final Grad2[] GRADIENTS_2D;
-    private static final Grad3[] GRADIENTS_3D;
+    static final Grad3[] GRADIENTS_3D;
     static {
 
         GRADIENTS_2D = new Grad2[PSIZE];
@@ -0,0 +1,247 @@
+package com.yungnickyoung.minecraft.bettercaves.noise;
+
+/**
+ * Single-precision variant of the 3D OpenSimplex2S noise used for simplex (Type 2) caves.
+ * Produces the same noise as OpenSimplex2S with the same seed and settings, up to float rounding error.
+ *
+ * The lattice point lookup graph and gradients are flattened into primitive arrays rather than linked objects,
+ * and point contributions are evaluated in float. The lattice re-orientation and the split of each coordinate into
+ * its lattice cell and offset are still done in double, so that precision doesn't degrade far from the origin.
+ */
+public class OpenSimplex2SFloat implements INoiseLibrary {
+
+    private static final int PSIZE = 2048;
+    private static final int PMASK = 2047;
+
+    private short[] perm;
+    /** Gradient of each permutation entry, stored as consecutive (dx, dy, dz) triples */
+    private float[] permGrad3;
+    private int octaves;
+    private double gain, frequency, lacunarity;
+
+    public OpenSimplex2SFloat(long seed) {
+        perm = new short[PSIZE];
+        permGrad3 = new float[PSIZE * 3];
+        short[] source = new short[PSIZE];
+        for (short i = 0; i < PSIZE; i++)
+            source[i] = i;
+        for (int i = PSIZE - 1; i >= 0; i--) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            int r = (int)((seed + 31) % (i + 1));
+            if (r < 0)
+                r += (i + 1);
+            perm[i] = source[r];
+            permGrad3[i * 3]     = GRADIENTS_3D[perm[i] * 3];
+            permGrad3[i * 3 + 1] = GRADIENTS_3D[perm[i] * 3 + 1];
+            permGrad3[i * 3 + 2] = GRADIENTS_3D[perm[i] * 3 + 2];
+            source[r] = source[i];
+        }
+    }
+
+    public float GetNoise(float x, float y, float z) {
+        x *= frequency;
+        y *= frequency;
+        z *= frequency;
+
+        float sum = 1 - Math.abs(noise3_XZBeforeY(x, y, z));
+        float amp = 1;
+
+        for (int i = 1; i < octaves; i++) {
+            x *= lacunarity;
+            y *= lacunarity;
+            z *= lacunarity;
+
+            amp *= gain;
+            sum -= (1 - Math.abs(noise3_XZBeforeY(x, y, z))) * amp;
+        }
+
+        return sum;
+    }
+
+    /**
+     * Computes the noise for a column of points, equivalent to calling GetNoise for each point.
+     * The x/z parts of the lattice re-orientation are computed once per octave rather than once per point.
+     */
+    public void fillColumn(float x, float z, int yStart, int yCount, float yStep, float[] out, int offset) {
+        x *= frequency;
+        z *= frequency;
+        float amp = 1;
+
+        // The first octave is always evaluated, as in GetNoise
+        for (int octave = 0; octave < Math.max(octaves, 1); octave++) {
+            if (octave > 0) {
+                x *= lacunarity;
+                z *= lacunarity;
+                amp *= gain;
+            }
+
+            // Per-column part of noise3_XZBeforeY
+            double xz = (double)x + (double)z;
+            double s2 = xz * -0.211324865405187;
+            double xs2 = x + s2;
+            double zs2 = z + s2;
+            double xzr = xz * 0.577350269189626;
+
+            for (int i = 0; i < yCount; i++) {
+                float y = (yStart + i) * yStep;
+                y *= frequency;
+                for (int j = 0; j < octave; j++)
+                    y *= lacunarity;
+
+                double yy = y * 0.577350269189626;
+                float value = 1 - Math.abs(noise3_BCC(xs2 - yy, xzr + yy, zs2 - yy));
+
+                if (octave == 0)
+                    out[offset + i] = value;
+                else
+                    out[offset + i] -= value * amp;
+            }
+        }
+    }
+
+    public void setOctaves(int octaves) {
+        this.octaves = octaves;
+    }
+
+    public void setGain(double gain) {
+        this.gain = gain;
+    }
+
+    public void setLacunarity(double lacunarity) {
+        this.lacunarity = lacunarity;
+    }
+
+    public void setFrequency(double frequency) {
+        this.frequency = frequency;
+    }
+
+    /**
+     * 3D Re-oriented 8-point BCC noise, with better visual isotropy in (X, Z).
+     * See OpenSimplex2S.noise3_XZBeforeY.
+     */
+    private float noise3_XZBeforeY(double x, double y, double z) {
+        double xz = x + z;
+        double s2 = xz * -0.211324865405187;
+        double yy = y * 0.577350269189626;
+        double xr = x + s2 - yy; double zr = z + s2 - yy;
+        double yr = xz * 0.577350269189626 + yy;
+
+        return noise3_BCC(xr, yr, zr);
+    }
+
+    /**
+     * Generate overlapping cubic lattices for 3D Re-oriented BCC noise.
+     * Walks the same lookup graph as OpenSimplex2S.noise3_BCC, using indices into the flattened lattice point arrays.
+     */
+    private float noise3_BCC(double xr, double yr, double zr) {
+
+        // Get base and offsets inside cube of first lattice.
+        int xrb = fastFloor(xr), yrb = fastFloor(yr), zrb = fastFloor(zr);
+        float xri = (float)(xr - xrb), yri = (float)(yr - yrb), zri = (float)(zr - zrb);
+
+        // Identify which octant of the cube we're in.
+        int xht = (int)(xri + 0.5f), yht = (int)(yri + 0.5f), zht = (int)(zri + 0.5f);
+        int index = (xht << 0) | (yht << 1) | (zht << 2);
+
+        // Point contributions
+        float value = 0;
+        int c = LOOKUP_3D[index];
+        while (c >= 0) {
+            float dxr = xri + LATTICE_DXR[c], dyr = yri + LATTICE_DYR[c], dzr = zri + LATTICE_DZR[c];
+            float attn = 0.75f - dxr * dxr - dyr * dyr - dzr * dzr;
+            if (attn < 0) {
+                c = LATTICE_NEXT_ON_FAILURE[c];
+            } else {
+                int pxm = (xrb + LATTICE_XRV[c]) & PMASK, pym = (yrb + LATTICE_YRV[c]) & PMASK, pzm = (zrb + LATTICE_ZRV[c]) & PMASK;
+                int grad = (perm[perm[pxm] ^ pym] ^ pzm) * 3;
+                float extrapolation = permGrad3[grad] * dxr + permGrad3[grad + 1] * dyr + permGrad3[grad + 2] * dzr;
+
+                attn *= attn;
+                value += attn * attn * extrapolation;
+                c = LATTICE_NEXT_ON_SUCCESS[c];
+            }
+        }
+        return value;
+    }
+
+    /*
+     * Utility
+     */
+
+    private static int fastFloor(double x) {
+        int xi = (int)x;
+        return x < xi ? xi - 1 : xi;
+    }
+
+    /*
+     * Definitions
+     */
+
+    /** Number of lattice points in the lookup graph of each octant */
+    private static final int POINTS_PER_OCTANT = 14;
+
+    /** Index of the first lattice point of each octant */
+    private static final int[] LOOKUP_3D;
+    private static final float[] LATTICE_DXR, LATTICE_DYR, LATTICE_DZR;
+    private static final int[] LATTICE_XRV, LATTICE_YRV, LATTICE_ZRV;
+    /** Index of the next lattice point to visit, or -1 if there is none */
+    private static final int[] LATTICE_NEXT_ON_FAILURE, LATTICE_NEXT_ON_SUCCESS;
+    private static final float[] GRADIENTS_3D;
+    static {
+        int numPoints = 8 * POINTS_PER_OCTANT;
+        LOOKUP_3D = new int[8];
+        LATTICE_DXR = new float[numPoints];
+        LATTICE_DYR = new float[numPoints];
+        LATTICE_DZR = new float[numPoints];
+        LATTICE_XRV = new int[numPoints];
+        LATTICE_YRV = new int[numPoints];
+        LATTICE_ZRV = new int[numPoints];
+        LATTICE_NEXT_ON_FAILURE = new int[numPoints];
+        LATTICE_NEXT_ON_SUCCESS = new int[numPoints];
+
+        // Flatten the lookup graph of each octant, numbering its points in the order they are first reached
+        for (int i = 0; i < 8; i++) {
+            OpenSimplex2S.LatticePoint3D[] points = new OpenSimplex2S.LatticePoint3D[POINTS_PER_OCTANT];
+            int count = 0;
+            points[count++] = OpenSimplex2S.LOOKUP_3D[i];
+            for (int j = 0; j < count; j++) {
+                OpenSimplex2S.LatticePoint3D[] next = {points[j].nextOnFailure, points[j].nextOnSuccess};
+                for (OpenSimplex2S.LatticePoint3D point : next) {
+                    if (point != null && indexOf(points, count, point) < 0)
+                        points[count++] = point;
+                }
+            }
+
+            int base = i * POINTS_PER_OCTANT;
+            LOOKUP_3D[i] = base;
+            for (int j = 0; j < count; j++) {
+                OpenSimplex2S.LatticePoint3D point = points[j];
+                LATTICE_DXR[base + j] = (float)point.dxr;
+                LATTICE_DYR[base + j] = (float)point.dyr;
+                LATTICE_DZR[base + j] = (float)point.dzr;
+                LATTICE_XRV[base + j] = point.xrv;
+                LATTICE_YRV[base + j] = point.yrv;
+                LATTICE_ZRV[base + j] = point.zrv;
+                int onFailure = indexOf(points, count, point.nextOnFailure);
+                int onSuccess = indexOf(points, count, point.nextOnSuccess);
+                LATTICE_NEXT_ON_FAILURE[base + j] = onFailure < 0 ? -1 : base + onFailure;
+                LATTICE_NEXT_ON_SUCCESS[base + j] = onSuccess < 0 ? -1 : base + onSuccess;
+            }
+        }
+
+        GRADIENTS_3D = new float[PSIZE * 3];
+        for (int i = 0; i < PSIZE; i++) {
+            GRADIENTS_3D[i * 3]     = (float)OpenSimplex2S.GRADIENTS_3D[i].dx;
+            GRADIENTS_3D[i * 3 + 1] = (float)OpenSimplex2S.GRADIENTS_3D[i].dy;
+            GRADIENTS_3D[i * 3 + 2] = (float)OpenSimplex2S.GRADIENTS_3D[i].dz;
+        }
+    }
+
+    private static int indexOf(OpenSimplex2S.LatticePoint3D[] points, int count, OpenSimplex2S.LatticePoint3D point) {
+        for (int i = 0; i < count; i++) {
+            if (points[i] == point)
+                return i;
+        }
+        return -1;
+    }
+}
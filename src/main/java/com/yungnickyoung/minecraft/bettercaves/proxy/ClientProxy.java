@@ -1,6 +1,7 @@
 package com.yungnickyoung.minecraft.bettercaves.proxy;
 
 import com.yungnickyoung.minecraft.bettercaves.BetterCaves;
+import com.yungnickyoung.minecraft.bettercaves.command.CommandBetterCaves;
 import com.yungnickyoung.minecraft.bettercaves.event.EventConfigReload;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayer;
@@ -35,6 +36,7 @@ public class ClientProxy implements IProxy {
 
     @Override
     public void serverStarting(FMLServerStartingEvent event) {
-        // This will never get called on client side
+        // Called when the integrated server starts
+        event.registerServerCommand(new CommandBetterCaves());
     }
 }
@@ -1,5 +1,6 @@
 package com.yungnickyoung.minecraft.bettercaves.proxy;
 
+import com.yungnickyoung.minecraft.bettercaves.command.CommandBetterCaves;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
@@ -25,7 +26,7 @@ public class ServerProxy implements IProxy {
 
     @Override
     public void serverStarting(FMLServerStartingEvent event) {
-        // register server commands here
+        event.registerServerCommand(new CommandBetterCaves());
     }
 
     @Override
@@ -0,0 +1,77 @@
+package com.yungnickyoung.minecraft.bettercaves.util;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
+
+import java.lang.reflect.Field;
+
+/**
+ * Direct access to the backing array of a ChunkPrimer.
+ * Each entry of the array is the ID of a block state, so reading and writing entries directly skips the
+ * block state registry lookup that ChunkPrimer.getBlockState and setBlockState perform for every block.
+ * This class may not be instantiated - all members are {@code public} and {@code static},
+ * and as such may be accessed freely.
+ */
+public class ChunkPrimerAccess {
+    private ChunkPrimerAccess() {} // Private constructor prevents instantiation
+
+    /** The primer's backing array. Resolved once, since reflection is slow. */
+    private static final Field PRIMER_DATA = ObfuscationReflectionHelper.findField(ChunkPrimer.class, "field_177860_a");
+
+    private static final IBlockState AIR = Blocks.AIR.getDefaultState();
+
+    /**
+     * @param primer primer for chunk
+     * @return the primer's backing array of block state IDs, indexed by {@link #index}
+     */
+    public static char[] getData(ChunkPrimer primer) {
+        try {
+            return (char[]) PRIMER_DATA.get(primer);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Unable to access ChunkPrimer data", e);
+        }
+    }
+
+    /**
+     * Computes the index of a block in a primer's backing array, in the same way as the primer itself.
+     * @param localX The block's chunk-local x-coordinate
+     * @param y The block's y-coordinate
+     * @param localZ The block's chunk-local z-coordinate
+     * @return index into the backing array
+     */
+    public static int index(int localX, int y, int localZ) {
+        return localX << 12 | localZ << 8 | y;
+    }
+
+    /**
+     * @param blockState The block state
+     * @return the ID a primer stores when the block state is set
+     */
+    public static char getStateId(IBlockState blockState) {
+        return (char) Block.BLOCK_STATE_IDS.get(blockState);
+    }
+
+    /**
+     * Finds the ID that a primer reads back as the given block state.
+     * Block states that aren't stored exactly, such as those differing from another state only in properties
+     * that aren't saved, have no such ID.
+     * @param blockState The block state
+     * @return the ID, or -1 if no registered ID is read back as the block state
+     */
+    public static int getReadableStateId(IBlockState blockState) {
+        int id = Block.BLOCK_STATE_IDS.get(blockState);
+        return id >= 0 && Block.BLOCK_STATE_IDS.getByValue(id) == blockState ? id : -1;
+    }
+
+    /**
+     * @param id A block state ID from a primer's backing array
+     * @return the block state the primer reads for the ID. IDs without a block state are read as air.
+     */
+    public static IBlockState getState(char id) {
+        IBlockState blockState = Block.BLOCK_STATE_IDS.getByValue(id);
+        return blockState == null ? AIR : blockState;
+    }
+}
@@ -0,0 +1,66 @@
+package com.yungnickyoung.minecraft.bettercaves.world;
+
+import net.minecraft.world.World;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of active Better Caves carvers. Maps dimension ID to its carver.
+ * We create separate carvers per dimension to allow for dimension-specific configuration.
+ *
+ * Carvers register themselves when they initialize, which happens on whichever thread first generates a chunk in
+ * their dimension, while other generators may be reading the registry. All access is therefore thread-safe.
+ * This class may not be instantiated - all members are {@code public} and {@code static},
+ * and as such may be accessed freely.
+ */
+public class CarverRegistry {
+    private CarverRegistry() {} // Private constructor prevents instantiation
+
+    private static final Map<Integer, MapGenBetterCaves> carvers = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the carver for a dimension, replacing any carver previously registered for it.
+     * @param dimensionID Unique dimension ID
+     * @param carver The carver
+     */
+    public static void register(int dimensionID, MapGenBetterCaves carver) {
+        carvers.put(dimensionID, carver);
+    }
+
+    /**
+     * @param dimensionID Unique dimension ID
+     * @return the carver registered for the dimension, or null if there is none
+     */
+    public static MapGenBetterCaves get(int dimensionID) {
+        return carvers.get(dimensionID);
+    }
+
+    /**
+     * Removes the carver for a world's dimension, if it is the carver used for that world.
+     * A carver registered for the same dimension by a newer world is kept.
+     * @param world The world being unloaded
+     * @return true if a carver was removed
+     */
+    public static boolean unregister(World world) {
+        int dimensionID = world.provider.getDimension();
+        MapGenBetterCaves carver = carvers.get(dimensionID);
+        return carver != null && carver.getWorld() == world && carvers.remove(dimensionID, carver);
+    }
+
+    /**
+     * @return a snapshot of all registered carvers, sorted by dimension ID
+     */
+    public static Map<Integer, MapGenBetterCaves> getCarvers() {
+        return Collections.unmodifiableMap(new TreeMap<>(carvers));
+    }
+
+    /**
+     * @return the number of registered carvers
+     */
+    public static int size() {
+        return carvers.size();
+    }
+}
@@ -0,0 +1,254 @@
+package com.yungnickyoung.minecraft.bettercaves.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-dimension timers and counters for cave generation.
+ * Time spent in each stage of a chunk is accumulated in a {@link ChunkMetrics} while the chunk generates, and recorded
+ * into a histogram per stage once the chunk is finished, so that percentiles over many chunks can be reported.
+ * Each thread generating chunks accumulates into its own ChunkMetrics, so chunks may be generated concurrently.
+ *
+ * Metrics are only collected if enabled in the config. Carvers hold a null instance otherwise, so the only cost when
+ * disabled is a null check at each instrumented point.
+ */
+public class GenerationMetrics {
+    /** Stages of chunk generation that are timed separately */
+    public enum Stage {
+        REGION("Region lookups"),
+        SURFACE("Surface estimation"),
+        NOISE_CUBIC("Noise cubes (type 1 caves)"),
+        NOISE_SIMPLEX("Noise cubes (type 2 caves)"),
+        NOISE_LAVA("Noise cubes (lava caverns)"),
+        NOISE_FLOORED("Noise cubes (floored caverns)"),
+        NOISE_WATER("Noise cubes (water caverns)"),
+        CARVING("Carving"),
+        POST_PROCESSING("Post-processing"),
+        TOTAL("Total");
+
+        private final String description;
+
+        Stage(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * @param type noise cube type, in the order cubic, simplex, lava, floored, water
+         * @return the stage the noise cube type is built in
+         */
+        public static Stage noiseCube(int type) {
+            return values()[NOISE_CUBIC.ordinal() + type];
+        }
+    }
+
+    private static final int NUM_STAGES = Stage.values().length;
+
+    // Totals over all recorded chunks. Guarded by this.
+    private final Histogram[] histograms = new Histogram[NUM_STAGES];
+    private long chunks;
+    private long blocksDug;
+    private long liquidPlaced;
+
+    public GenerationMetrics() {
+        for (int i = 0; i < NUM_STAGES; i++)
+            histograms[i] = new Histogram();
+    }
+
+    /**
+     * Records a finished chunk's timers and counters.
+     * @param chunk The chunk's metrics
+     * @param startNanos Start time of the chunk, from {@link System#nanoTime()}
+     */
+    public synchronized void endChunk(ChunkMetrics chunk, long startNanos) {
+        chunk.addTime(Stage.TOTAL, startNanos);
+        for (int i = 0; i < NUM_STAGES; i++)
+            histograms[i].record(chunk.nanos.get(i));
+        chunks++;
+        blocksDug += chunk.blocksDug;
+        liquidPlaced += chunk.liquidPlaced;
+    }
+
+    /**
+     * Discards all recorded chunks.
+     */
+    public synchronized void reset() {
+        for (Histogram histogram : histograms)
+            histogram.reset();
+        chunks = 0;
+        blocksDug = 0;
+        liquidPlaced = 0;
+    }
+
+    /**
+     * @return human-readable summary of all recorded chunks, one line per entry
+     */
+    public synchronized List<String> report() {
+        List<String> lines = new ArrayList<>();
+        lines.add(chunks + " chunks, " + blocksDug + " blocks dug, " + liquidPlaced + " liquid blocks placed");
+        if (chunks == 0)
+            return lines;
+
+        lines.add(String.format("Per chunk: %.1f blocks dug, %.1f liquid blocks placed",
+                (double) blocksDug / chunks, (double) liquidPlaced / chunks));
+        for (Stage stage : Stage.values()) {
+            Histogram histogram = histograms[stage.ordinal()];
+            lines.add(String.format("%s: mean %s, p50 %s, p90 %s, p99 %s, max %s",
+                    stage.getDescription(),
+                    formatNanos(histogram.getMean()),
+                    formatNanos(histogram.getPercentile(.5)),
+                    formatNanos(histogram.getPercentile(.9)),
+                    formatNanos(histogram.getPercentile(.99)),
+                    formatNanos(histogram.getMax())));
+        }
+        return lines;
+    }
+
+    private static String formatNanos(double nanos) {
+        if (nanos < 1000)
+            return String.format("%.0fns", nanos);
+        if (nanos < 1000000)
+            return String.format("%.1fus", nanos / 1000);
+        return String.format("%.2fms", nanos / 1000000);
+    }
+
+    /**
+     * Timers and counters for the chunk a single thread is generating.
+     * An instance is reused for each chunk generated on its thread, and is reset at the start of each chunk.
+     */
+    public static class ChunkMetrics {
+        /** Time spent in each stage of the current chunk. Noise cubes may be built on other threads. */
+        private final AtomicLongArray nanos = new AtomicLongArray(NUM_STAGES);
+
+        // Counters for the current chunk. Only updated by the thread carving the chunk.
+        private int blocksDug;
+        private int liquidPlaced;
+
+        /**
+         * Starts a new chunk, discarding the timers and counters of the previous one.
+         */
+        public void reset() {
+            for (int i = 0; i < NUM_STAGES; i++)
+                nanos.set(i, 0);
+            blocksDug = 0;
+            liquidPlaced = 0;
+        }
+
+        /**
+         * Adds the time elapsed since startNanos to a stage of the current chunk.
+         * @param stage The stage
+         * @param startNanos Start time of the stage, from {@link System#nanoTime()}
+         */
+        public void addTime(Stage stage, long startNanos) {
+            nanos.addAndGet(stage.ordinal(), System.nanoTime() - startNanos);
+        }
+
+        /**
+         * @return the time spent so far in a stage of the current chunk, in nanoseconds
+         */
+        private long getTime(Stage stage) {
+            return nanos.get(stage.ordinal());
+        }
+
+        /**
+         * @return the time spent so far in stages that can run while carving, i.e. noise cube builds and post-processing
+         */
+        public long getNestedCarvingTime() {
+            long total = getTime(Stage.POST_PROCESSING);
+            for (int type = 0; type < 5; type++)
+                total += getTime(Stage.noiseCube(type));
+            return total;
+        }
+
+        /**
+         * Adds the time elapsed since startNanos to the carving stage, excluding any time spent in nested stages since.
+         * @param startNanos Start time of carving, from {@link System#nanoTime()}
+         * @param nestedStartNanos Result of {@link #getNestedCarvingTime()} when carving started
+         */
+        public void addCarvingTime(long startNanos, long nestedStartNanos) {
+            long nested = getNestedCarvingTime() - nestedStartNanos;
+            nanos.addAndGet(Stage.CARVING.ordinal(), System.nanoTime() - startNanos - nested);
+        }
+
+        public void countBlockDug() {
+            blocksDug++;
+        }
+
+        public void countLiquidPlaced() {
+            liquidPlaced++;
+        }
+    }
+
+    /**
+     * Log-linear histogram of non-negative values.
+     * Each power of two is split into 4 buckets, so percentiles are accurate to within 25%.
+     */
+    private static class Histogram {
+        private static final int NUM_BUCKETS = 256;
+
+        private final long[] counts = new long[NUM_BUCKETS];
+        private long count;
+        private long sum;
+        private long max;
+
+        void record(long value) {
+            value = Math.max(value, 0);
+            counts[bucketFor(value)]++;
+            count++;
+            sum += value;
+            max = Math.max(max, value);
+        }
+
+        void reset() {
+            for (int i = 0; i < NUM_BUCKETS; i++)
+                counts[i] = 0;
+            count = 0;
+            sum = 0;
+            max = 0;
+        }
+
+        double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        long getMax() {
+            return max;
+        }
+
+        /**
+         * @param p percentile, between 0 and 1
+         * @return upper bound of the bucket containing the percentile, capped at the largest recorded value
+         */
+        long getPercentile(double p) {
+            long rank = (long) Math.ceil(p * count);
+            long seen = 0;
+            for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+                seen += counts[bucket];
+                if (seen >= rank && seen > 0)
+                    return Math.min(lowerBound(bucket + 1) - 1, max);
+            }
+            return max;
+        }
+
+        private static int bucketFor(long value) {
+            if (value < 4)
+                return (int) value;
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - 2)) & 3;
+            return (exponent - 1) * 4 + subBucket;
+        }
+
+        private static long lowerBound(int bucket) {
+            if (bucket < 4)
+                return bucket;
+            int exponent = bucket / 4 + 1;
+            if (exponent > 62)
+                return Long.MAX_VALUE;
+            return (long) (4 + bucket % 4) << (exponent - 2);
+        }
+    }
+}
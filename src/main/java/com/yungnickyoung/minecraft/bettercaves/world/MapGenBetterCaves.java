@@ -1,6 +1,5 @@
 package com.yungnickyoung.minecraft.bettercaves.world;
 
-import com.yungnickyoung.minecraft.bettercaves.BetterCaves;
 import com.yungnickyoung.minecraft.bettercaves.config.Configuration;
 import com.yungnickyoung.minecraft.bettercaves.config.Settings;
 import com.yungnickyoung.minecraft.bettercaves.config.ConfigHolder;
@@ -8,8 +7,7 @@ import com.yungnickyoung.minecraft.bettercaves.config.ConfigLoader;
 import com.yungnickyoung.minecraft.bettercaves.enums.CaveType;
 import com.yungnickyoung.minecraft.bettercaves.enums.CavernType;
 import com.yungnickyoung.minecraft.bettercaves.enums.RegionSize;
-import com.yungnickyoung.minecraft.bettercaves.noise.NoiseColumn;
-import com.yungnickyoung.minecraft.bettercaves.noise.NoiseCube;
+import com.yungnickyoung.minecraft.bettercaves.noise.NoiseBuffer;
 import com.yungnickyoung.minecraft.bettercaves.util.BetterCavesUtil;
 import com.yungnickyoung.minecraft.bettercaves.noise.FastNoise;
 import com.yungnickyoung.minecraft.bettercaves.world.bedrock.FlattenBedrock;
@@ -27,12 +25,22 @@ import net.minecraft.world.gen.MapGenCaves;
 import net.minecraftforge.event.terraingen.InitMapGenEvent;
 
 import javax.annotation.Nonnull;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class that overrides vanilla cave gen with Better Caves gen.
  * Combines multiple types of caves and caverns using different types of noise to create a
  * novel underground experience.
+ *
+ * A single instance may generate chunks on several threads at once. Everything set up when the instance is
+ * initialized - carvers, region controllers, thresholds and liquid blocks - is read-only afterwards and shared by all
+ * threads, while the state of the chunk being generated is kept in a separate {@link GenerationContext} per thread.
  */
 public class MapGenBetterCaves extends MapGenCaves {
     // Cave types
@@ -53,6 +61,15 @@ public class MapGenBetterCaves extends MapGenCaves {
     private FastNoise cavernRegionController;
     private FastNoise caveRegionController;
 
+    // White noise used to jitter the water region threshold for each column, creating a ragged liquid buffer
+    private FastNoise waterRegionJitter;
+
+    // Heightmap whose block state table is shared by the heightmaps of every generating thread
+    private SurfaceHeightmap baseHeightmap;
+
+    // State of the chunk each thread is currently generating
+    private ThreadLocal<GenerationContext> contexts;
+
     // Region generation noise thresholds, based on user config
     private float cubicCaveThreshold;
     private float simplexCaveThreshold;
@@ -69,9 +86,14 @@ public class MapGenBetterCaves extends MapGenCaves {
     private float waterRegionSmoothRange = .05f;
     private float waterRegionSmoothDelta = .015f;
 
+    // Indices of each carver's noise cube in the per-sub-chunk arrays used for parallel generation
+    private static final int CUBIC = 0, SIMPLEX = 1, LAVA = 2, FLOORED = 3, WATER = 4;
+    private static final int NUM_SUB_CHUNKS = (16 / Settings.SUB_CHUNK_SIZE) * (16 / Settings.SUB_CHUNK_SIZE);
+
     // Liquid blocks (can be changed from water/lava via config)
     private IBlockState lavaBlock;
     private IBlockState waterBlock;
+    private IBlockState bedrockReplacementBlock;
 
     // Dimension this instance of MapGenBetterCaves is used in
     public int dimensionID;
@@ -80,8 +102,18 @@ public class MapGenBetterCaves extends MapGenCaves {
     // Config holder for non-global config options that may be specific to this carver
     public ConfigHolder config = new ConfigHolder();
 
+    // Config used in place of the dimension's config file, if set
+    private ConfigHolder fixedConfig;
+
+    // Per-stage timers and counters for this dimension. Null if metrics are disabled.
+    private GenerationMetrics metrics;
+
+    // Set once initialization has completed. Chunks may be generated on several threads, and must not see a
+    // partially initialized carver.
+    private volatile boolean isInitialized = false;
+
     // DEBUG
-    private int counter = 200;
+    private final AtomicInteger counter = new AtomicInteger();
 
     public MapGenBetterCaves() {
     }
@@ -90,6 +122,17 @@ public class MapGenBetterCaves extends MapGenCaves {
         this.defaultCaveGen = event.getOriginalGen();
     }
 
+    /**
+     * Creates a carver that always uses the given config, instead of loading the config for its dimension from file.
+     * Useful for running generation outside of a normal Minecraft instance, e.g. in tests or benchmarks.
+     * @param event The event whose original generator is used for vanilla caves
+     * @param config The config to use
+     */
+    public MapGenBetterCaves(InitMapGenEvent event, ConfigHolder config) {
+        this(event);
+        this.fixedConfig = config;
+    }
+
     /**
      * Function for generating Better Caves in a single chunk. This overrides the vanilla cave generation, which is
      * ordinarily performed by the MapGenCaves class.
@@ -101,39 +144,58 @@ public class MapGenBetterCaves extends MapGenCaves {
      */
     @Override
     public void generate(World worldIn, int chunkX, int chunkZ, @Nonnull ChunkPrimer primer) {
-        if (world == null) { // First call - (lazy) initialization of all cave/cavern generators
-            this.initialize(worldIn);
+        if (!isInitialized) { // First call - (lazy) initialization of all cave/cavern generators
+            this.initializeOnce(worldIn);
         }
 
         // Only operate on whitelisted dimensions.
         // I tried just setting the event's NewGen to its OriginalGen but that doesn't
         // seem to do anything after the cave gen process has been initiated.
         if (!isDimensionWhitelisted(dimensionID)) {
-            defaultCaveGen.generate(worldIn, chunkX, chunkZ, primer);
+            generateVanillaCaves(worldIn, chunkX, chunkZ, primer);
             return;
         }
 
-        counter--;
-        if (counter <= 0) {
+        if (counter.incrementAndGet() % 200 == 0) {
             Settings.LOGGER.warn("BETTERCAVESWORLD "+ world.getSeed() + " | " +
                     BetterCavesUtil.dimensionAsString(dimensionID, dimensionName) + " | " +
-                    BetterCaves.activeCarversMap.size() + " | " + this.hashCode());
-            counter = 200;
+                    CarverRegistry.size() + " | " + this.hashCode());
+        }
+
+        GenerationContext context = contexts.get();
+        if (metrics == null) {
+            carveChunk(context, worldIn, chunkX, chunkZ, primer);
+            return;
         }
 
+        long chunkStart = System.nanoTime();
+        context.chunkMetrics.reset();
+        carveChunk(context, worldIn, chunkX, chunkZ, primer);
+        metrics.endChunk(context.chunkMetrics, chunkStart);
+    }
+
+    /**
+     * Carves caves and caverns out of a single chunk, and flattens its bedrock if enabled.
+     * @param context The calling thread's generation context
+     * @param worldIn The Minecraft world
+     * @param chunkX The chunk's x-coordinate (on the chunk grid, not the block grid)
+     * @param chunkZ The chunk's z-coordinate (on the chunk grid, not the block grid)
+     * @param primer The chunk's ChunkPrimer
+     */
+    private void carveChunk(GenerationContext context, World worldIn, int chunkX, int chunkZ, ChunkPrimer primer) {
+        RegionMap regionMap = context.regionMap;
+        ColumnContext columnContext = context.columnContext;
+
         // Default vals for max/min surface height
-        int maxSurfaceHeight = 128; // Default 128 for if debug visualizer is enabled
+        int maxSurfaceHeight;
         int minSurfaceHeight = 60;
 
-        // Noise cubes and columns for storing noise values
-        NoiseCube caveSimplexNoiseCube;
-        NoiseCube caveCubicNoiseCube;
-        NoiseCube cavernLavaNoiseCube;
-        NoiseCube cavernFlooredNoiseCube;
-        NoiseCube cavernWaterNoiseCube;
-
-        NoiseColumn caveNoiseColumn;
-        NoiseColumn cavernNoiseColumn;
+        // Noise cubes for storing noise values
+        NoiseBuffer caveSimplexNoiseCube;
+        NoiseBuffer caveCubicNoiseCube;
+        NoiseBuffer cavernLavaNoiseCube;
+        NoiseBuffer cavernFlooredNoiseCube;
+        NoiseBuffer cavernWaterNoiseCube;
 
         // These values are later set to the correct cave/cavern type's config vars for
         // caveBottom, and caveTop (only applicable for caverns, since caves perform some additional
@@ -142,13 +204,37 @@ public class MapGenBetterCaves extends MapGenCaves {
         int cavernTopY;
         int caveBottomY;
 
-        Random rand = new Random(world.getSeed() + chunkX + chunkZ);
-
         boolean liquidBuffer;
 
         // Flatten bedrock, if enabled
-        if (config.flattenBedrock.get())
-            FlattenBedrock.flattenBedrock(primer, config.bedrockWidth.get());
+        if (config.flattenBedrock.get()) {
+            long bedrockStart = startTimer();
+            FlattenBedrock.flattenBedrock(primer, config.bedrockWidth.get(), bedrockReplacementBlock);
+            stopTimer(context, GenerationMetrics.Stage.POST_PROCESSING, bedrockStart);
+        }
+
+        // Compute region noise values for every column in the chunk up front
+        long regionStart = startTimer();
+        regionMap.compute(chunkX, chunkZ);
+        stopTimer(context, GenerationMetrics.Stage.REGION, regionStart);
+
+        // Determine whether any column in this chunk can contain caves or caverns
+        boolean chunkHasCaves = regionMap.getMinCaveRegionNoise() < cubicCaveThreshold
+                || regionMap.getMaxCaveRegionNoise() >= simplexCaveThreshold
+                || config.enableVanillaCaves.get();
+        boolean chunkHasCaverns = regionMap.getMinCavernRegionNoise() <= lavaCavernThreshold + cavernSmoothRange
+                || regionMap.getMaxCavernRegionNoise() >= flooredCavernThreshold - cavernSmoothRange;
+
+        if (!chunkHasCaves && !chunkHasCaverns)
+            return;
+
+        // Fetch the biomes of every column up front, rather than once per dug block
+        columnContext.setChunk(world, chunkX, chunkZ);
+        context.surfaceHeightmap.setPrimer(primer);
+
+        // Compute noise cubes in parallel, if enabled.
+        // Chunks containing vanilla caves are generated sequentially, since generation stops at the first such column.
+        boolean isParallel = config.enableParallelGeneration.get() && !hasVanillaCaveColumn(regionMap);
 
         // We split chunks into 2x2 sub-chunks along the x-z axis for surface height calculations
         for (int subX = 0; subX < 16 / Settings.SUB_CHUNK_SIZE; subX++) {
@@ -160,24 +246,49 @@ public class MapGenBetterCaves extends MapGenCaves {
                 BlockPos startPos = new BlockPos(chunkX * 16 + startX, 1, chunkZ * 16 + startZ);
                 BlockPos endPos   = new BlockPos(chunkX * 16 + endX, 1, chunkZ * 16 + endZ);
 
-                caveSimplexNoiseCube = null;
-                caveCubicNoiseCube = null;
+                // Use precomputed noise cubes if available. Any cube still null is computed as needed.
+                // Unless surface sampling is accurate, every sub-chunk's surface estimate samples a column in the first
+                // sub-chunk, so the first sub-chunk is precomputed and carved on its own before the rest are
+                // precomputed together. Otherwise, every sub-chunk is precomputed before any of them are carved.
+                int subChunk = subX * (16 / Settings.SUB_CHUNK_SIZE) + subZ;
+                if (isParallel && subChunk == 0 && config.enableAccurateSurfaceSampling.get())
+                    precomputeNoiseCubes(context, chunkX, chunkZ, chunkHasCaves, minSurfaceHeight, 0, NUM_SUB_CHUNKS - 1);
+                else if (isParallel && subChunk == 0)
+                    precomputeNoiseCubes(context, chunkX, chunkZ, chunkHasCaves, minSurfaceHeight, 0, 0);
+                else if (isParallel && subChunk == 1 && !config.enableAccurateSurfaceSampling.get())
+                    precomputeNoiseCubes(context, chunkX, chunkZ, chunkHasCaves, minSurfaceHeight, 1, NUM_SUB_CHUNKS - 1);
+
+                if (isParallel) {
+                    caveCubicNoiseCube = context.subChunkNoiseCubes[subChunk][CUBIC];
+                    caveSimplexNoiseCube = context.subChunkNoiseCubes[subChunk][SIMPLEX];
+
+                    cavernLavaNoiseCube = context.subChunkNoiseCubes[subChunk][LAVA];
+                    cavernFlooredNoiseCube = context.subChunkNoiseCubes[subChunk][FLOORED];
+                    cavernWaterNoiseCube = context.subChunkNoiseCubes[subChunk][WATER];
+
+                    maxSurfaceHeight = context.subChunkMaxSurfaceHeights[subChunk];
+                }
+                else {
+                    caveSimplexNoiseCube = null;
+                    caveCubicNoiseCube = null;
 
-                cavernLavaNoiseCube = null;
-                cavernFlooredNoiseCube = null;
-                cavernWaterNoiseCube = null;
+                    cavernLavaNoiseCube = null;
+                    cavernFlooredNoiseCube = null;
+                    cavernWaterNoiseCube = null;
 
-                if (!config.debugVisualizer.get())
-                    maxSurfaceHeight = BetterCavesUtil.estimateMaxSurfaceAltitudeSubChunk(primer, startPos, Settings.SUB_CHUNK_SIZE);
+                    maxSurfaceHeight = calcMaxSurfaceHeight(context, startPos, chunkHasCaves);
+                }
 
-                // maxSurfaceHeight (also used for max cave altitude) cannot exceed Max Cave Altitude setting
-                maxSurfaceHeight = Math.min(maxSurfaceHeight, config.maxCaveAltitude.get());
+                // Noise cubes built and post-processing done while carving are timed as their own stages
+                long carvingStart = startTimer();
+                long nestedStart = metrics != null ? context.chunkMetrics.getNestedCarvingTime() : 0;
 
                 for (int offsetX = 0; offsetX < Settings.SUB_CHUNK_SIZE; offsetX++) {
                     for (int offsetZ = 0; offsetZ < Settings.SUB_CHUNK_SIZE; offsetZ++) {
                         int localX = startX + offsetX;
                         int localZ = startZ + offsetZ;
                         BlockPos colPos = new BlockPos(chunkX * 16 + localX, 1, chunkZ * 16 + localZ);
+                        columnContext.setColumn(localX, localZ);
 
                         liquidBuffer = false;
 
@@ -188,10 +299,10 @@ public class MapGenBetterCaves extends MapGenCaves {
 
                         // Only bother calculating noise for water region if enabled
                         if (config.enableWaterRegions.get()) {
-                            waterRegionNoise = waterRegionController.GetNoise(colPos.getX(), colPos.getZ());
+                            waterRegionNoise = regionMap.getWaterRegionNoise(localX, localZ);
 
                             // If water region threshold check is passed, change liquid block to water
-                            float randOffset = (rand.nextFloat() * waterRegionSmoothDelta + waterRegionSmoothRange);
+                            float randOffset = getWaterRegionOffset(colPos.getX(), colPos.getZ());
                             if (waterRegionNoise < waterRegionThreshold - randOffset)
                                 liquidBlock = waterBlock;
                             else if (waterRegionNoise < waterRegionThreshold + randOffset)
@@ -210,29 +321,33 @@ public class MapGenBetterCaves extends MapGenCaves {
                          * out of this chunk.
                          */
                         // Get noise values used to determine cave region
-                        float caveRegionNoise = caveRegionController.GetNoise(colPos.getX(), colPos.getZ());
+                        float caveRegionNoise = regionMap.getCaveRegionNoise(localX, localZ);
 
                         if (caveRegionNoise < this.cubicCaveThreshold) {
                             caveBottomY = config.cubicCaveBottom.get();
                             if (caveCubicNoiseCube == null) {
-                                caveCubicNoiseCube = caveCubic.getNoiseGen().interpolateNoiseCube(startPos, endPos, caveBottomY, maxSurfaceHeight);
+                                long noiseStart = startTimer();
+                                caveCubicNoiseCube = caveCubic.interpolateNoiseCube(startPos, endPos, caveBottomY, maxSurfaceHeight,
+                                        isLiquidBufferSubChunk(regionMap, CUBIC, chunkX, chunkZ, startX, startZ), context.noiseBuffers[CUBIC]);
+                                stopTimer(context, GenerationMetrics.Stage.NOISE_CUBIC, noiseStart);
                             }
-                            caveNoiseColumn = caveCubicNoiseCube.get(offsetX).get(offsetZ);
-                            caveCubic.generateColumnWithNoise(primer, colPos, caveBottomY, maxSurfaceHeight,
-                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, caveNoiseColumn, liquidBuffer);
+                            caveCubic.generateColumnWithNoise(primer, columnContext, colPos, caveBottomY, maxSurfaceHeight,
+                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, caveCubicNoiseCube, liquidBuffer);
                         }
                         else if (caveRegionNoise >= this.simplexCaveThreshold) {
                             caveBottomY = config.simplexCaveBottom.get();
                             if (caveSimplexNoiseCube == null) {
-                                caveSimplexNoiseCube = caveSimplex.getNoiseGen().interpolateNoiseCube(startPos, endPos, config.simplexCaveBottom.get(), maxSurfaceHeight);
+                                long noiseStart = startTimer();
+                                caveSimplexNoiseCube = caveSimplex.interpolateNoiseCube(startPos, endPos, config.simplexCaveBottom.get(), maxSurfaceHeight,
+                                        isLiquidBufferSubChunk(regionMap, SIMPLEX, chunkX, chunkZ, startX, startZ), context.noiseBuffers[SIMPLEX]);
+                                stopTimer(context, GenerationMetrics.Stage.NOISE_SIMPLEX, noiseStart);
                             }
-                            caveNoiseColumn = caveSimplexNoiseCube.get(offsetX).get(offsetZ);
-                            caveSimplex.generateColumnWithNoise(primer, colPos, caveBottomY, maxSurfaceHeight,
-                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, caveNoiseColumn, liquidBuffer);
+                            caveSimplex.generateColumnWithNoise(primer, columnContext, colPos, caveBottomY, maxSurfaceHeight,
+                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, caveSimplexNoiseCube, liquidBuffer);
                         }
                         else {
                             if (config.enableVanillaCaves.get()) {
-                                defaultCaveGen.generate(worldIn, chunkX, chunkZ, primer);
+                                generateVanillaCaves(worldIn, chunkX, chunkZ, primer);
                                 return;
                             }
                         }
@@ -242,26 +357,24 @@ public class MapGenBetterCaves extends MapGenCaves {
                         if (caveRegionNoise >= cubicCaveThreshold && caveRegionNoise <= cubicCaveThreshold + caveSmoothRange) {
                             float smoothAmp = Math.abs((caveRegionNoise - (cubicCaveThreshold + caveSmoothRange)) / caveSmoothRange);
                             if (caveCubicNoiseCube == null) {
-                                caveCubicNoiseCube = caveCubic.getNoiseGen().interpolateNoiseCube(startPos, endPos, config.cubicCaveBottom.get(), maxSurfaceHeight);
+                                caveCubicNoiseCube = caveCubic.interpolateNoiseCube(startPos, endPos, config.cubicCaveBottom.get(), maxSurfaceHeight, caveCubicNoiseBuffer);
                             }
-                            caveNoiseColumn = caveCubicNoiseCube.get(offsetX).get(offsetZ);
-                            caveCubic.generateColumnWithNoise(primer, colPos, config.cubicCaveBottom.get(), maxSurfaceHeight,
-                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, caveNoiseColumn, liquidBuffer);
+                            caveCubic.generateColumnWithNoise(primer, columnContext, colPos, config.cubicCaveBottom.get(), maxSurfaceHeight,
+                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, caveCubicNoiseCube, liquidBuffer);
                         }
                         else if (cavernRegionNoise <= flooredCavernThreshold && cavernRegionNoise >= flooredCavernThreshold - cavernSmoothRange) {
                             float smoothAmp = Math.abs((cavernRegionNoise - (flooredCavernThreshold - cavernSmoothRange)) / cavernSmoothRange);
                             if (cavernFlooredNoiseCube == null) {
-                                cavernFlooredNoiseCube = cavernFloored.getNoiseGen().interpolateNoiseCube(startPos, endPos, config.flooredCavernBottom.get(), config.flooredCavernTop.get());
+                                cavernFlooredNoiseCube = cavernFloored.getNoiseGen().interpolateNoiseCube(startPos, endPos, config.flooredCavernBottom.get(), config.flooredCavernTop.get(), cavernFlooredNoiseBuffer);
                             }
-                            cavernNoiseColumn = cavernFlooredNoiseCube.get(offsetX).get(offsetZ);
-                            this.cavernFloored.generateColumnWithNoise(primer, colPos, config.flooredCavernBottom.get(), config.flooredCavernTop.get(),
-                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, smoothAmp, cavernNoiseColumn, liquidBuffer);
+                            this.cavernFloored.generateColumnWithNoise(primer, columnContext, colPos, config.flooredCavernBottom.get(), config.flooredCavernTop.get(),
+                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, smoothAmp, cavernFlooredNoiseCube, liquidBuffer);
                         }
                         */
 
                         /* --------------------------- Configure Caverns --------------------------- */
                         // Noise values used to determine cavern region
-                        float cavernRegionNoise = cavernRegionController.GetNoise(colPos.getX(), colPos.getZ());
+                        float cavernRegionNoise = regionMap.getCavernRegionNoise(localX, localZ);
 
                         // Determine cavern type for this column. Caverns generate at low altitudes only.
                         if (cavernRegionNoise < lavaCavernThreshold) {
@@ -270,29 +383,38 @@ public class MapGenBetterCaves extends MapGenCaves {
                             cavernTopY = config.lavaCavernTop.get();
                             if (config.enableWaterRegions.get() && waterRegionNoise < this.waterRegionThreshold) {
                                 if (cavernWaterNoiseCube == null) {
-                                    cavernWaterNoiseCube = cavernWater.getNoiseGen().interpolateNoiseCube(startPos, endPos, cavernBottomY, cavernTopY);
+                                    long noiseStart = startTimer();
+                                    cavernWaterNoiseCube = cavernWater.interpolateNoiseCube(startPos, endPos, cavernBottomY, cavernTopY,
+                                        minSurfaceHeight, calcMinCavernSmoothAmp(regionMap, false, startX, startZ),
+                                        isLiquidBufferSubChunk(regionMap, WATER, chunkX, chunkZ, startX, startZ), context.noiseBuffers[WATER]);
+                                    stopTimer(context, GenerationMetrics.Stage.NOISE_WATER, noiseStart);
                                 }
-                                cavernNoiseColumn = cavernWaterNoiseCube.get(offsetX).get(offsetZ);
-                                cavernWater.generateColumnWithNoise(primer, colPos, cavernBottomY, cavernTopY,
-                                        maxSurfaceHeight, minSurfaceHeight, liquidBlock, 1, cavernNoiseColumn, liquidBuffer);
+                                cavernWater.generateColumnWithNoise(primer, columnContext, colPos, cavernBottomY, cavernTopY,
+                                        maxSurfaceHeight, minSurfaceHeight, liquidBlock, 1, cavernWaterNoiseCube, liquidBuffer);
                             }
                             else {
                                 if (cavernLavaNoiseCube == null) {
-                                    cavernLavaNoiseCube = cavernLava.getNoiseGen().interpolateNoiseCube(startPos, endPos, cavernBottomY, cavernTopY);
+                                    long noiseStart = startTimer();
+                                    cavernLavaNoiseCube = cavernLava.interpolateNoiseCube(startPos, endPos, cavernBottomY, cavernTopY,
+                                        minSurfaceHeight, calcMinCavernSmoothAmp(regionMap, false, startX, startZ),
+                                        isLiquidBufferSubChunk(regionMap, LAVA, chunkX, chunkZ, startX, startZ), context.noiseBuffers[LAVA]);
+                                    stopTimer(context, GenerationMetrics.Stage.NOISE_LAVA, noiseStart);
                                 }
-                                cavernNoiseColumn = cavernLavaNoiseCube.get(offsetX).get(offsetZ);
-                                cavernLava.generateColumnWithNoise(primer, colPos, cavernBottomY, cavernTopY,
-                                        maxSurfaceHeight, minSurfaceHeight, liquidBlock, 1, cavernNoiseColumn, liquidBuffer);                            }
+                                cavernLava.generateColumnWithNoise(primer, columnContext, colPos, cavernBottomY, cavernTopY,
+                                        maxSurfaceHeight, minSurfaceHeight, liquidBlock, 1, cavernLavaNoiseCube, liquidBuffer);                            }
                         }
                         else if (cavernRegionNoise > flooredCavernThreshold) {
                             cavernBottomY = config.flooredCavernBottom.get();
                             cavernTopY = config.flooredCavernTop.get();
                             if (cavernFlooredNoiseCube == null) {
-                                cavernFlooredNoiseCube = cavernFloored.getNoiseGen().interpolateNoiseCube(startPos, endPos, cavernBottomY, cavernTopY);
+                                long noiseStart = startTimer();
+                                cavernFlooredNoiseCube = cavernFloored.interpolateNoiseCube(startPos, endPos, cavernBottomY, cavernTopY,
+                                        minSurfaceHeight, calcMinCavernSmoothAmp(regionMap, true, startX, startZ),
+                                        isLiquidBufferSubChunk(regionMap, FLOORED, chunkX, chunkZ, startX, startZ), context.noiseBuffers[FLOORED]);
+                                stopTimer(context, GenerationMetrics.Stage.NOISE_FLOORED, noiseStart);
                             }
-                            cavernNoiseColumn = cavernFlooredNoiseCube.get(offsetX).get(offsetZ);
-                            cavernFloored.generateColumnWithNoise(primer, colPos, cavernBottomY, cavernTopY,
-                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, 1, cavernNoiseColumn, liquidBuffer);
+                            cavernFloored.generateColumnWithNoise(primer, columnContext, colPos, cavernBottomY, cavernTopY,
+                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, 1, cavernFlooredNoiseCube, liquidBuffer);
                         }
 
                         // Extra check to provide close-off transitions on cavern edges
@@ -300,36 +422,73 @@ public class MapGenBetterCaves extends MapGenCaves {
                             float smoothAmp = Math.abs((cavernRegionNoise - (lavaCavernThreshold + cavernSmoothRange)) / cavernSmoothRange);
                             if (config.enableWaterRegions.get() && waterRegionNoise < this.waterRegionThreshold) {
                                 if (cavernWaterNoiseCube == null) {
-                                    cavernWaterNoiseCube = cavernWater.getNoiseGen().interpolateNoiseCube(startPos, endPos, config.lavaCavernBottom.get(), config.lavaCavernTop.get());
+                                    long noiseStart = startTimer();
+                                    cavernWaterNoiseCube = cavernWater.interpolateNoiseCube(startPos, endPos, config.lavaCavernBottom.get(), config.lavaCavernTop.get(),
+                                        minSurfaceHeight, calcMinCavernSmoothAmp(regionMap, false, startX, startZ),
+                                        isLiquidBufferSubChunk(regionMap, WATER, chunkX, chunkZ, startX, startZ), context.noiseBuffers[WATER]);
+                                    stopTimer(context, GenerationMetrics.Stage.NOISE_WATER, noiseStart);
                                 }
-                                cavernNoiseColumn = cavernWaterNoiseCube.get(offsetX).get(offsetZ);
-                                this.cavernWater.generateColumnWithNoise(primer, colPos, config.lavaCavernBottom.get(), config.lavaCavernTop.get(),
-                                        maxSurfaceHeight, minSurfaceHeight, liquidBlock, smoothAmp, cavernNoiseColumn, liquidBuffer);
+                                this.cavernWater.generateColumnWithNoise(primer, columnContext, colPos, config.lavaCavernBottom.get(), config.lavaCavernTop.get(),
+                                        maxSurfaceHeight, minSurfaceHeight, liquidBlock, smoothAmp, cavernWaterNoiseCube, liquidBuffer);
                             }
                             else {
                                 if (cavernLavaNoiseCube == null) {
-                                    cavernLavaNoiseCube = cavernLava.getNoiseGen().interpolateNoiseCube(startPos, endPos, config.lavaCavernBottom.get(), config.lavaCavernTop.get());
+                                    long noiseStart = startTimer();
+                                    cavernLavaNoiseCube = cavernLava.interpolateNoiseCube(startPos, endPos, config.lavaCavernBottom.get(), config.lavaCavernTop.get(),
+                                        minSurfaceHeight, calcMinCavernSmoothAmp(regionMap, false, startX, startZ),
+                                        isLiquidBufferSubChunk(regionMap, LAVA, chunkX, chunkZ, startX, startZ), context.noiseBuffers[LAVA]);
+                                    stopTimer(context, GenerationMetrics.Stage.NOISE_LAVA, noiseStart);
                                 }
-                                cavernNoiseColumn = cavernLavaNoiseCube.get(offsetX).get(offsetZ);
-                                this.cavernLava.generateColumnWithNoise(primer, colPos, config.lavaCavernBottom.get(), config.lavaCavernTop.get(),
-                                        maxSurfaceHeight, minSurfaceHeight, liquidBlock, smoothAmp, cavernNoiseColumn, liquidBuffer);
+                                this.cavernLava.generateColumnWithNoise(primer, columnContext, colPos, config.lavaCavernBottom.get(), config.lavaCavernTop.get(),
+                                        maxSurfaceHeight, minSurfaceHeight, liquidBlock, smoothAmp, cavernLavaNoiseCube, liquidBuffer);
                             }
                         }
                         else if (cavernRegionNoise <= flooredCavernThreshold && cavernRegionNoise >= flooredCavernThreshold - cavernSmoothRange) {
                             float smoothAmp = Math.abs((cavernRegionNoise - (flooredCavernThreshold - cavernSmoothRange)) / cavernSmoothRange);
                             if (cavernFlooredNoiseCube == null) {
-                                cavernFlooredNoiseCube = cavernFloored.getNoiseGen().interpolateNoiseCube(startPos, endPos, config.flooredCavernBottom.get(), config.flooredCavernTop.get());
+                                long noiseStart = startTimer();
+                                cavernFlooredNoiseCube = cavernFloored.interpolateNoiseCube(startPos, endPos, config.flooredCavernBottom.get(), config.flooredCavernTop.get(),
+                                        minSurfaceHeight, calcMinCavernSmoothAmp(regionMap, true, startX, startZ),
+                                        isLiquidBufferSubChunk(regionMap, FLOORED, chunkX, chunkZ, startX, startZ), context.noiseBuffers[FLOORED]);
+                                stopTimer(context, GenerationMetrics.Stage.NOISE_FLOORED, noiseStart);
                             }
-                            cavernNoiseColumn = cavernFlooredNoiseCube.get(offsetX).get(offsetZ);
-                            this.cavernFloored.generateColumnWithNoise(primer, colPos, config.flooredCavernBottom.get(), config.flooredCavernTop.get(),
-                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, smoothAmp, cavernNoiseColumn, liquidBuffer);
+                            this.cavernFloored.generateColumnWithNoise(primer, columnContext, colPos, config.flooredCavernBottom.get(), config.flooredCavernTop.get(),
+                                    maxSurfaceHeight, minSurfaceHeight, liquidBlock, smoothAmp, cavernFlooredNoiseCube, liquidBuffer);
                         }
                     }
                 }
+
+                if (metrics != null)
+                    context.chunkMetrics.addCarvingTime(carvingStart, nestedStart);
             }
         }
     }
 
+    /**
+     * @return the generation metrics for this dimension, or null if metrics are disabled
+     */
+    public GenerationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the world this carver was initialized for, or null if it has not generated any chunks yet
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Initializes this carver, unless another thread already has.
+     * @param worldIn The minecraft world
+     */
+    private synchronized void initializeOnce(World worldIn) {
+        if (!isInitialized) {
+            initialize(worldIn);
+            isInitialized = true;
+        }
+    }
+
     /**
      * Initialize Better Caves generators and cave region controllers for this world & dimension.
      * @param worldIn The minecraft world
@@ -340,19 +499,20 @@ public class MapGenBetterCaves extends MapGenCaves {
         this.dimensionID = worldIn.provider.getDimension();
         this.dimensionName = worldIn.provider.getDimensionType().toString();
 
-        this.config = ConfigLoader.loadConfigFromFileForDimension(this.dimensionID);
-
-        // Add this carver to map of active carvers by dimension ID.
-        // Note that if a carver already exists for this dimension ID, its position
-        // in the list will be overwritten.
-        BetterCaves.activeCarversMap.put(dimensionID, this);
+        this.config = fixedConfig != null ? fixedConfig : ConfigLoader.loadConfigFromFileForDimension(this.dimensionID);
 
         Settings.LOGGER.info("BETTERCAVESWORLDINIT " + BetterCavesUtil.dimensionAsString(dimensionID, dimensionName));
-        Settings.LOGGER.info("# of carvers: "+ BetterCaves.activeCarversMap.size());
+
+        // Classify all registered block states for fast lookups during carving
+        CarverUtils.initializeBlockFlags();
+
+        // Collect generation metrics, if enabled
+        this.metrics = config.enableMetrics.get() ? new GenerationMetrics() : null;
 
         // Set water and lava blocks
         this.lavaBlock = getLavaBlock();
         this.waterBlock = getWaterBlock();
+        this.bedrockReplacementBlock = getBedrockReplacementBlock();
 
         // Determine noise thresholds for cave and cavern spawns
         this.lavaCavernThreshold = calcLavaCavernThreshold();
@@ -384,6 +544,14 @@ public class MapGenBetterCaves extends MapGenCaves {
         this.waterRegionController.SetSeed((int)worldIn.getSeed() + 444);
         this.waterRegionController.SetFrequency(waterRegionSize);
 
+        this.waterRegionJitter = new FastNoise();
+        this.waterRegionJitter.SetSeed((int)worldIn.getSeed() + 555);
+
+        this.baseHeightmap = new SurfaceHeightmap(config.enableAccurateSurfaceSampling.get());
+
+        // Each generating thread creates its own context the first time it generates a chunk
+        this.contexts = ThreadLocal.withInitial(this::createContext);
+
         /* ---------- Initialize all Better Cave carvers using config options ---------- */
         this.caveCubic = new CaveCarverBuilder(worldIn)
                 .ofTypeFromConfig(CaveType.CUBIC, config)
@@ -409,9 +577,298 @@ public class MapGenBetterCaves extends MapGenCaves {
                 .ofTypeFromConfig(CavernType.WATER, config)
                 .debugVisualizerBlock(Blocks.LAPIS_BLOCK.getDefaultState())
                 .build();
+
+        if (config.useFloatSimplexNoise.get() && config.validateFloatSimplexNoise.get())
+            validateFloatSimplexNoise();
+
+        // Add this carver to the registry of active carvers by dimension ID, once it is fully initialized.
+        // Note that if a carver already exists for this dimension ID, it will be replaced.
+        CarverRegistry.register(dimensionID, this);
+        Settings.LOGGER.info("# of carvers: "+ CarverRegistry.size());
     }
 
     /* ============================== Private helper methods ============================== */
+    /**
+     * Creates the generation context for a thread. Must only be called once the region controllers are initialized.
+     */
+    private GenerationContext createContext() {
+        RegionMap regionMap = new RegionMap(caveRegionController, cavernRegionController, waterRegionController,
+                config.enableWaterRegions.get(), calcRegionSampleSpacing());
+        return new GenerationContext(regionMap, new SurfaceHeightmap(baseHeightmap), metrics != null);
+    }
+
+    /**
+     * Generates vanilla caves in a chunk. Vanilla generators keep the state of the chunk being generated in fields,
+     * so chunks are generated one at a time.
+     */
+    private void generateVanillaCaves(World worldIn, int chunkX, int chunkZ, ChunkPrimer primer) {
+        synchronized (defaultCaveGen) {
+            defaultCaveGen.generate(worldIn, chunkX, chunkZ, primer);
+        }
+    }
+
+    /**
+     * Logs the maximum difference between the single-precision noise used for Type 2 caves and the default
+     * double-precision noise, near the world origin and far away from it.
+     */
+    private void validateFloatSimplexNoise() {
+        int bottom = config.simplexCaveBottom.get();
+        int top = config.maxCaveAltitude.get();
+        int[] distances = {0, 1000000};
+        for (int distance : distances) {
+            float deviation = caveSimplex.getNoiseGen().measureFloatSimplexDeviation(distance, distance, 16, bottom, top);
+            Settings.LOGGER.info(String.format("Float precision Type 2 cave noise differs from default noise by at most %.3g " +
+                    "around (%d, %d) in %s", deviation, distance, distance, BetterCavesUtil.dimensionAsString(dimensionID, dimensionName)));
+        }
+    }
+
+    /**
+     * Determines the max surface height of a sub-chunk, used as the top of its caves.
+     * @param context The calling thread's generation context
+     * @param startPos Position of the sub-chunk's starting corner column
+     * @param chunkHasCaves Whether any column in the chunk can contain caves. If not, the surface is not estimated.
+     * @return max surface height, capped at the Max Cave Altitude setting
+     */
+    private int calcMaxSurfaceHeight(GenerationContext context, BlockPos startPos, boolean chunkHasCaves) {
+        int maxSurfaceHeight = 128; // Default 128 for if debug visualizer is enabled
+
+        if (chunkHasCaves && !config.debugVisualizer.get()) {
+            long surfaceStart = startTimer();
+            maxSurfaceHeight = context.surfaceHeightmap.estimateMaxSurfaceAltitudeSubChunk(startPos, Settings.SUB_CHUNK_SIZE);
+            stopTimer(context, GenerationMetrics.Stage.SURFACE, surfaceStart);
+        }
+
+        // maxSurfaceHeight (also used for max cave altitude) cannot exceed Max Cave Altitude setting
+        return Math.min(maxSurfaceHeight, config.maxCaveAltitude.get());
+    }
+
+    /**
+     * Determines the random offset applied to the water region threshold for a column.
+     * The offset is a pure function of the world seed and the column's coordinates, so columns may be
+     * generated in any order (or skipped entirely) without affecting one another.
+     * @param x The column's x-coordinate (on the block grid)
+     * @param z The column's z-coordinate (on the block grid)
+     * @return offset in the range [waterRegionSmoothRange, waterRegionSmoothRange + waterRegionSmoothDelta]
+     */
+    private float getWaterRegionOffset(int x, int z) {
+        float jitter = (waterRegionJitter.GetWhiteNoiseInt(x, z) + 1) * .5f; // Map from [-1, 1] to [0, 1]
+        return jitter * waterRegionSmoothDelta + waterRegionSmoothRange;
+    }
+
+    /**
+     * @param regionMap Region noise values of the current chunk
+     * @return true if any column of the current chunk falls back to vanilla cave generation
+     */
+    private boolean hasVanillaCaveColumn(RegionMap regionMap) {
+        if (!config.enableVanillaCaves.get())
+            return false;
+
+        for (int localX = 0; localX < 16; localX++) {
+            for (int localZ = 0; localZ < 16; localZ++) {
+                float caveRegionNoise = regionMap.getCaveRegionNoise(localX, localZ);
+                if (caveRegionNoise >= cubicCaveThreshold && caveRegionNoise < simplexCaveThreshold)
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Computes the noise cubes needed by a range of sub-chunks, in parallel on the common fork-join pool.
+     * The results are stored in the context's subChunkNoiseCubes, and each sub-chunk's max surface height in its
+     * subChunkMaxSurfaceHeights. The branch conditions here must mirror those used when carving in
+     * {@link #generate}; any cube that is missed here is simply computed during carving instead.
+     * @param context The calling thread's generation context
+     * @param minSurfaceHeight The min surface height caverns are carved with
+     * @param firstSubChunk Index of the first sub-chunk to compute noise cubes for
+     * @param lastSubChunk Index of the last sub-chunk to compute noise cubes for
+     */
+    private void precomputeNoiseCubes(GenerationContext context, int chunkX, int chunkZ, boolean chunkHasCaves,
+                                      int minSurfaceHeight, int firstSubChunk, int lastSubChunk) {
+        RegionMap regionMap = context.regionMap;
+        NoiseBuffer[][] subChunkNoiseBuffers = context.subChunkNoiseBuffers;
+        NoiseBuffer[][] subChunkNoiseCubes = context.subChunkNoiseCubes;
+        List<Callable<Void>> tasks = new ArrayList<>();
+
+        for (int subChunk = firstSubChunk; subChunk <= lastSubChunk; subChunk++) {
+            int startX = (subChunk / (16 / Settings.SUB_CHUNK_SIZE)) * Settings.SUB_CHUNK_SIZE;
+            int startZ = (subChunk % (16 / Settings.SUB_CHUNK_SIZE)) * Settings.SUB_CHUNK_SIZE;
+            BlockPos startPos = new BlockPos(chunkX * 16 + startX, 1, chunkZ * 16 + startZ);
+            BlockPos endPos = new BlockPos(startPos.getX() + Settings.SUB_CHUNK_SIZE - 1, 1, startPos.getZ() + Settings.SUB_CHUNK_SIZE - 1);
+
+            // Determine which noise cubes this sub-chunk needs
+            boolean[] isNeeded = new boolean[5];
+            for (int offsetX = 0; offsetX < Settings.SUB_CHUNK_SIZE; offsetX++) {
+                for (int offsetZ = 0; offsetZ < Settings.SUB_CHUNK_SIZE; offsetZ++) {
+                    for (int type = 0; type < 5; type++)
+                        isNeeded[type] |= usesNoiseCube(regionMap, type, startX + offsetX, startZ + offsetZ);
+                }
+            }
+
+            int maxSurfaceHeight = calcMaxSurfaceHeight(context, startPos, chunkHasCaves);
+            context.subChunkMaxSurfaceHeights[subChunk] = maxSurfaceHeight;
+
+            for (int type = 0; type < 5; type++) {
+                subChunkNoiseCubes[subChunk][type] = null;
+                if (!isNeeded[type])
+                    continue;
+
+                if (subChunkNoiseBuffers[subChunk][type] == null)
+                    subChunkNoiseBuffers[subChunk][type] = new NoiseBuffer(Settings.SUB_CHUNK_SIZE, Settings.SUB_CHUNK_SIZE, 0, 0, 1);
+
+                final NoiseBuffer buffer = subChunkNoiseBuffers[subChunk][type];
+                final CaveCarver caveCarver;
+                final CavernCarver cavernCarver;
+                final int bottomY, topY;
+                final float minSmoothAmp;
+                switch (type) {
+                    case CUBIC:
+                        caveCarver = caveCubic;
+                        cavernCarver = null;
+                        bottomY = config.cubicCaveBottom.get();
+                        topY = maxSurfaceHeight;
+                        minSmoothAmp = 1;
+                        break;
+                    case SIMPLEX:
+                        caveCarver = caveSimplex;
+                        cavernCarver = null;
+                        bottomY = config.simplexCaveBottom.get();
+                        topY = maxSurfaceHeight;
+                        minSmoothAmp = 1;
+                        break;
+                    case LAVA:
+                        caveCarver = null;
+                        cavernCarver = cavernLava;
+                        bottomY = config.lavaCavernBottom.get();
+                        topY = config.lavaCavernTop.get();
+                        minSmoothAmp = calcMinCavernSmoothAmp(regionMap, false, startX, startZ);
+                        break;
+                    case WATER:
+                        // Water caverns use the same cave top/bottom as lava caverns
+                        caveCarver = null;
+                        cavernCarver = cavernWater;
+                        bottomY = config.lavaCavernBottom.get();
+                        topY = config.lavaCavernTop.get();
+                        minSmoothAmp = calcMinCavernSmoothAmp(regionMap, false, startX, startZ);
+                        break;
+                    default:
+                        caveCarver = null;
+                        cavernCarver = cavernFloored;
+                        bottomY = config.flooredCavernBottom.get();
+                        topY = config.flooredCavernTop.get();
+                        minSmoothAmp = calcMinCavernSmoothAmp(regionMap, true, startX, startZ);
+                        break;
+                }
+
+                final boolean liquidBuffer = isLiquidBufferSubChunk(regionMap, type, chunkX, chunkZ, startX, startZ);
+
+                subChunkNoiseCubes[subChunk][type] = buffer;
+                final GenerationMetrics.Stage stage = GenerationMetrics.Stage.noiseCube(type);
+                tasks.add(() -> {
+                    long noiseStart = startTimer();
+                    if (caveCarver != null)
+                        caveCarver.interpolateNoiseCube(startPos, endPos, bottomY, topY, liquidBuffer, buffer);
+                    else
+                        cavernCarver.interpolateNoiseCube(startPos, endPos, bottomY, topY, minSurfaceHeight, minSmoothAmp, liquidBuffer, buffer);
+                    stopTimer(context, stage, noiseStart);
+                    return null;
+                });
+            }
+        }
+
+        try {
+            for (Future<Void> future : ForkJoinPool.commonPool().invokeAll(tasks))
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while computing Better Caves noise cubes", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error computing Better Caves noise cubes", e.getCause());
+        }
+    }
+
+    /**
+     * Determines whether a column may be carved with the given type of noise cube.
+     * This must use the same conditions as {@link #generate}.
+     * @param regionMap Region noise values of the current chunk
+     * @param type The noise cube type, e.g. CUBIC or LAVA
+     * @param localX local x-coordinate of the column
+     * @param localZ local z-coordinate of the column
+     */
+    private boolean usesNoiseCube(RegionMap regionMap, int type, int localX, int localZ) {
+        float caveRegionNoise = regionMap.getCaveRegionNoise(localX, localZ);
+        float cavernRegionNoise = regionMap.getCavernRegionNoise(localX, localZ);
+        boolean isWaterCavern = config.enableWaterRegions.get()
+                && regionMap.getWaterRegionNoise(localX, localZ) < waterRegionThreshold;
+
+        switch (type) {
+            case CUBIC:
+                return caveRegionNoise < cubicCaveThreshold;
+            case SIMPLEX:
+                return !(caveRegionNoise < cubicCaveThreshold) && caveRegionNoise >= simplexCaveThreshold;
+            case LAVA:
+                return cavernRegionNoise <= lavaCavernThreshold + cavernSmoothRange && !isWaterCavern;
+            case WATER:
+                return cavernRegionNoise <= lavaCavernThreshold + cavernSmoothRange && isWaterCavern;
+            default:
+                return cavernRegionNoise >= flooredCavernThreshold - cavernSmoothRange;
+        }
+    }
+
+    /**
+     * Determines whether every column of a sub-chunk that may be carved with the given type of noise cube has a
+     * liquid buffer. Carving stops at the liquid altitude in such columns, so the cube's noise below it isn't needed.
+     * This must use the same conditions as {@link #generate}.
+     * @param regionMap Region noise values of the current chunk
+     * @param type The noise cube type, e.g. CUBIC or LAVA
+     * @param startX local x-coordinate of the sub-chunk's starting corner
+     * @param startZ local z-coordinate of the sub-chunk's starting corner
+     */
+    private boolean isLiquidBufferSubChunk(RegionMap regionMap, int type, int chunkX, int chunkZ, int startX, int startZ) {
+        if (!config.enableWaterRegions.get())
+            return false;
+
+        for (int localX = startX; localX < startX + Settings.SUB_CHUNK_SIZE; localX++) {
+            for (int localZ = startZ; localZ < startZ + Settings.SUB_CHUNK_SIZE; localZ++) {
+                if (!usesNoiseCube(regionMap, type, localX, localZ))
+                    continue;
+
+                float waterRegionNoise = regionMap.getWaterRegionNoise(localX, localZ);
+                float randOffset = getWaterRegionOffset(chunkX * 16 + localX, chunkZ * 16 + localZ);
+                boolean liquidBuffer = !(waterRegionNoise < waterRegionThreshold - randOffset)
+                        && waterRegionNoise < waterRegionThreshold + randOffset;
+                if (!liquidBuffer)
+                    return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes the smallest smoothAmp that any column of a sub-chunk is carved with by the lava and water cavern
+     * carvers, or by the floored cavern carver. This must use the same formulas as {@link #generate}.
+     * @param regionMap Region noise values of the current chunk
+     * @param isFloored true for floored caverns, false for lava and water caverns
+     * @param startX local x-coordinate of the sub-chunk's starting corner
+     * @param startZ local z-coordinate of the sub-chunk's starting corner
+     * @return The smallest smoothAmp, or 1 if no column of the sub-chunk lies in the cavern region's smoothing range
+     */
+    private float calcMinCavernSmoothAmp(RegionMap regionMap, boolean isFloored, int startX, int startZ) {
+        float minSmoothAmp = 1;
+        for (int localX = startX; localX < startX + Settings.SUB_CHUNK_SIZE; localX++) {
+            for (int localZ = startZ; localZ < startZ + Settings.SUB_CHUNK_SIZE; localZ++) {
+                float cavernRegionNoise = regionMap.getCavernRegionNoise(localX, localZ);
+                if (!isFloored && cavernRegionNoise >= lavaCavernThreshold && cavernRegionNoise <= lavaCavernThreshold + cavernSmoothRange)
+                    minSmoothAmp = Math.min(minSmoothAmp, Math.abs((cavernRegionNoise - (lavaCavernThreshold + cavernSmoothRange)) / cavernSmoothRange));
+                else if (isFloored && cavernRegionNoise <= flooredCavernThreshold && cavernRegionNoise >= flooredCavernThreshold - cavernSmoothRange)
+                    minSmoothAmp = Math.min(minSmoothAmp, Math.abs((cavernRegionNoise - (flooredCavernThreshold - cavernSmoothRange)) / cavernSmoothRange));
+            }
+        }
+        return minSmoothAmp;
+    }
+
     /**
      * @return threshold value for cubic cave spawn rate based on Config setting
      */
@@ -544,6 +1001,39 @@ public class MapGenBetterCaves extends MapGenCaves {
         }
     }
 
+    /**
+     * @return distance, in blocks, between the columns at which region noise is sampled
+     */
+    private int calcRegionSampleSpacing() {
+        switch (config.regionSampleSpacing.get()) {
+            case Two:
+                return 2;
+            case Four:
+                return 4;
+            case Eight:
+                return 8;
+            case Sixteen:
+                return 16;
+            default: // Exact
+                return 1;
+        }
+    }
+
+    /**
+     * @return start time for a timed stage, or 0 if metrics are disabled
+     */
+    private long startTimer() {
+        return metrics != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Adds the time elapsed since startNanos to a stage of the context's current chunk, if metrics are enabled.
+     */
+    private void stopTimer(GenerationContext context, GenerationMetrics.Stage stage, long startNanos) {
+        if (metrics != null)
+            context.chunkMetrics.addTime(stage, startNanos);
+    }
+
     private IBlockState getLavaBlock() {
         IBlockState lava;
         try {
@@ -584,6 +1074,26 @@ public class MapGenBetterCaves extends MapGenCaves {
         return water;
     }
 
+    private IBlockState getBedrockReplacementBlock() {
+        IBlockState replacement;
+        try {
+            replacement = Block.getBlockFromName(config.bedrockReplacementBlock.get()).getDefaultState();
+            Settings.LOGGER.info("Using block '" + config.bedrockReplacementBlock.get() + "' to replace bedrock for dimension " +
+                    BetterCavesUtil.dimensionAsString(dimensionID, dimensionName) + " ...");
+        } catch (Exception e) {
+            Settings.LOGGER.warn("Unable to use block '" + config.bedrockReplacementBlock.get() + "': " + e);
+            Settings.LOGGER.warn("Using stone instead...");
+            replacement = Blocks.STONE.getDefaultState();
+        }
+
+        if (replacement == null) {
+            Settings.LOGGER.warn("Unable to use block '" + config.bedrockReplacementBlock.get() + "': null block returned.\n Using stone instead...");
+            replacement = Blocks.STONE.getDefaultState();
+        }
+
+        return replacement;
+    }
+
     private boolean isDimensionWhitelisted(int dimID) {
         // Ignore the dimension ID list if global whitelisting is enabled
         if (Configuration.enableGlobalWhitelist)
@@ -594,4 +1104,41 @@ public class MapGenBetterCaves extends MapGenCaves {
 
         return false;
     }
+
+    /**
+     * State of the chunk a single thread is generating: its region noise, surface altitudes, biomes and noise cubes.
+     * Each context is only used by its own thread, apart from noise cubes precomputed on the fork-join pool for it.
+     */
+    private static final class GenerationContext {
+        // Region noise values for the chunk currently being generated
+        private final RegionMap regionMap;
+
+        // Surface altitudes of the chunk currently being generated
+        private final SurfaceHeightmap surfaceHeightmap;
+
+        // Biome information for the column currently being carved
+        private final ColumnContext columnContext = new ColumnContext();
+
+        // Timers and counters for the chunk currently being generated. Null if metrics are disabled.
+        private final GenerationMetrics.ChunkMetrics chunkMetrics;
+
+        // Reusable buffers each carver's noise cube is written into, one sub-chunk at a time, indexed by cube type
+        private final NoiseBuffer[] noiseBuffers = new NoiseBuffer[5];
+
+        // Parallel generation only - buffers for every sub-chunk's noise cubes, allocated as needed
+        private final NoiseBuffer[][] subChunkNoiseBuffers = new NoiseBuffer[NUM_SUB_CHUNKS][5];
+        // Parallel generation only - noise cubes precomputed for the current chunk. Null entries were not needed.
+        private final NoiseBuffer[][] subChunkNoiseCubes = new NoiseBuffer[NUM_SUB_CHUNKS][5];
+        // Parallel generation only - max surface height of each sub-chunk of the current chunk
+        private final int[] subChunkMaxSurfaceHeights = new int[NUM_SUB_CHUNKS];
+
+        GenerationContext(RegionMap regionMap, SurfaceHeightmap surfaceHeightmap, boolean enableMetrics) {
+            this.regionMap = regionMap;
+            this.surfaceHeightmap = surfaceHeightmap;
+            this.chunkMetrics = enableMetrics ? new GenerationMetrics.ChunkMetrics() : null;
+            columnContext.setMetrics(chunkMetrics);
+            for (int type = 0; type < 5; type++)
+                noiseBuffers[type] = new NoiseBuffer(Settings.SUB_CHUNK_SIZE, Settings.SUB_CHUNK_SIZE, 0, 0, 1);
+        }
+    }
 }
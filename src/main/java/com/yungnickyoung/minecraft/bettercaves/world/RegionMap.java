@@ -0,0 +1,190 @@
+package com.yungnickyoung.minecraft.bettercaves.world;
+
+import com.yungnickyoung.minecraft.bettercaves.noise.FastNoise;
+
+/**
+ * Per-chunk map of cave, cavern and water region noise values.
+ * All three region controllers are evaluated for a chunk up front, either exactly for every column or on a coarse
+ * grid with the columns in between estimated via bilinear interpolation.
+ * The grid points lie on multiples of the sample spacing in block coordinates, so neighboring chunks share the
+ * samples along their border and interpolated regions remain seamless.
+ *
+ * The minimum and maximum value of each controller over the chunk are also recorded, allowing
+ * whole chunks to skip cave or cavern generation when no column can fall inside the corresponding region.
+ */
+public class RegionMap {
+    private FastNoise caveRegionController;
+    private FastNoise cavernRegionController;
+    private FastNoise waterRegionController;
+
+    /** Whether water region noise should be computed at all */
+    private boolean enableWaterRegions;
+
+    /** Distance between sampled columns. 1 means every column is sampled exactly. */
+    private int sampleSpacing;
+
+    /** Number of grid points along each axis, including the border shared with the next chunk */
+    private int gridSize;
+
+    // Region noise values for each column of the chunk, indexed by localX * 16 + localZ
+    private float[] caveRegionNoise = new float[256];
+    private float[] cavernRegionNoise = new float[256];
+    private float[] waterRegionNoise = new float[256];
+
+    // Scratch space for coarse samples
+    private float[] caveSamples;
+    private float[] cavernSamples;
+    private float[] waterSamples;
+
+    // Bounds of the region noise values over the chunk
+    private float minCaveRegionNoise, maxCaveRegionNoise;
+    private float minCavernRegionNoise, maxCavernRegionNoise;
+
+    /**
+     * @param caveRegionController Noise generator for cave regions
+     * @param cavernRegionController Noise generator for cavern regions
+     * @param waterRegionController Noise generator for water regions
+     * @param enableWaterRegions Whether water region noise should be computed
+     * @param sampleSpacing Distance between sampled columns. Must evenly divide 16; anything else
+     *                      results in exact sampling of every column.
+     */
+    public RegionMap(FastNoise caveRegionController, FastNoise cavernRegionController, FastNoise waterRegionController,
+                     boolean enableWaterRegions, int sampleSpacing) {
+        this.caveRegionController = caveRegionController;
+        this.cavernRegionController = cavernRegionController;
+        this.waterRegionController = waterRegionController;
+        this.enableWaterRegions = enableWaterRegions;
+        this.sampleSpacing = (sampleSpacing > 1 && 16 % sampleSpacing == 0) ? sampleSpacing : 1;
+        this.gridSize = 16 / this.sampleSpacing + 1;
+
+        if (this.sampleSpacing > 1) {
+            caveSamples = new float[gridSize * gridSize];
+            cavernSamples = new float[gridSize * gridSize];
+            waterSamples = new float[gridSize * gridSize];
+        }
+    }
+
+    /**
+     * Computes the region noise values for every column in a chunk.
+     * @param chunkX The chunk's x-coordinate (on the chunk grid, not the block grid)
+     * @param chunkZ The chunk's z-coordinate (on the chunk grid, not the block grid)
+     */
+    public void compute(int chunkX, int chunkZ) {
+        if (sampleSpacing == 1)
+            computeExact(chunkX * 16, chunkZ * 16);
+        else
+            computeInterpolated(chunkX * 16, chunkZ * 16);
+
+        minCaveRegionNoise = Float.MAX_VALUE;
+        maxCaveRegionNoise = -Float.MAX_VALUE;
+        minCavernRegionNoise = Float.MAX_VALUE;
+        maxCavernRegionNoise = -Float.MAX_VALUE;
+        for (int i = 0; i < 256; i++) {
+            minCaveRegionNoise = Math.min(minCaveRegionNoise, caveRegionNoise[i]);
+            maxCaveRegionNoise = Math.max(maxCaveRegionNoise, caveRegionNoise[i]);
+            minCavernRegionNoise = Math.min(minCavernRegionNoise, cavernRegionNoise[i]);
+            maxCavernRegionNoise = Math.max(maxCavernRegionNoise, cavernRegionNoise[i]);
+        }
+    }
+
+    /* ------------------------- Public Getters -------------------------*/
+    public float getCaveRegionNoise(int localX, int localZ) {
+        return caveRegionNoise[localX * 16 + localZ];
+    }
+
+    public float getCavernRegionNoise(int localX, int localZ) {
+        return cavernRegionNoise[localX * 16 + localZ];
+    }
+
+    /**
+     * @return the water region noise for the column. Only meaningful if water regions are enabled.
+     */
+    public float getWaterRegionNoise(int localX, int localZ) {
+        return waterRegionNoise[localX * 16 + localZ];
+    }
+
+    public float getMinCaveRegionNoise() {
+        return minCaveRegionNoise;
+    }
+
+    public float getMaxCaveRegionNoise() {
+        return maxCaveRegionNoise;
+    }
+
+    public float getMinCavernRegionNoise() {
+        return minCavernRegionNoise;
+    }
+
+    public float getMaxCavernRegionNoise() {
+        return maxCavernRegionNoise;
+    }
+
+    public int getSampleSpacing() {
+        return sampleSpacing;
+    }
+
+    /* ------------------------- Private Methods -------------------------*/
+    /**
+     * Evaluates every region controller for every column in the chunk.
+     */
+    private void computeExact(int startX, int startZ) {
+        for (int localX = 0; localX < 16; localX++) {
+            for (int localZ = 0; localZ < 16; localZ++) {
+                int i = localX * 16 + localZ;
+                int x = startX + localX;
+                int z = startZ + localZ;
+                caveRegionNoise[i] = caveRegionController.GetNoise(x, z);
+                cavernRegionNoise[i] = cavernRegionController.GetNoise(x, z);
+                if (enableWaterRegions)
+                    waterRegionNoise[i] = waterRegionController.GetNoise(x, z);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the region controllers on a coarse grid and interpolates the columns in between.
+     */
+    private void computeInterpolated(int startX, int startZ) {
+        for (int gx = 0; gx < gridSize; gx++) {
+            for (int gz = 0; gz < gridSize; gz++) {
+                int i = gx * gridSize + gz;
+                int x = startX + gx * sampleSpacing;
+                int z = startZ + gz * sampleSpacing;
+                caveSamples[i] = caveRegionController.GetNoise(x, z);
+                cavernSamples[i] = cavernRegionController.GetNoise(x, z);
+                if (enableWaterRegions)
+                    waterSamples[i] = waterRegionController.GetNoise(x, z);
+            }
+        }
+
+        interpolate(caveSamples, caveRegionNoise);
+        interpolate(cavernSamples, cavernRegionNoise);
+        if (enableWaterRegions)
+            interpolate(waterSamples, waterRegionNoise);
+    }
+
+    /**
+     * Fills in a chunk's worth of values from a grid of samples via bilinear interpolation.
+     * @param samples Grid of samples, indexed by gx * gridSize + gz
+     * @param out Array of values for each column, indexed by localX * 16 + localZ
+     */
+    private void interpolate(float[] samples, float[] out) {
+        for (int localX = 0; localX < 16; localX++) {
+            int gx = localX / sampleSpacing;
+            float tx = (float)(localX % sampleSpacing) / sampleSpacing;
+            for (int localZ = 0; localZ < 16; localZ++) {
+                int gz = localZ / sampleSpacing;
+                float tz = (float)(localZ % sampleSpacing) / sampleSpacing;
+
+                float v00 = samples[gx * gridSize + gz];
+                float v01 = samples[gx * gridSize + gz + 1];
+                float v10 = samples[(gx + 1) * gridSize + gz];
+                float v11 = samples[(gx + 1) * gridSize + gz + 1];
+
+                float v0 = v00 + (v01 - v00) * tz;
+                float v1 = v10 + (v11 - v10) * tz;
+                out[localX * 16 + localZ] = v0 + (v1 - v0) * tx;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.yungnickyoung.minecraft.bettercaves.world;
+
+import com.yungnickyoung.minecraft.bettercaves.util.BetterCavesUtil;
+import com.yungnickyoung.minecraft.bettercaves.util.ChunkPrimerAccess;
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.ChunkPrimer;
+
+/**
+ * Per-chunk map of surface altitudes, read directly from a ChunkPrimer's backing array.
+ * The surface altitude of a column is the same as that returned by
+ * {@link BetterCavesUtil#getSurfaceAltitudeForColumn}: the lowest air or water block in the column, or 255 if the
+ * top block of the column is neither. Note that water blocks also count as the surface.
+ *
+ * Columns are scanned the first time their altitude is requested, and cached for the rest of the chunk.
+ * Altitudes therefore reflect the primer as it was when first requested, so a column should be queried before it is
+ * carved.
+ */
+public class SurfaceHeightmap {
+    /**
+     * Whether each block state ID counts as solid ground, i.e. is neither air nor water.
+     * IDs without a block state are read by the primer as air, and so are not solid.
+     * Never modified once built, so heightmaps of the same world may share it.
+     */
+    private final boolean[] isSolid;
+
+    /** Whether sub-chunk estimates test each sub-chunk's own center column, see estimateMaxSurfaceAltitudeSubChunk */
+    private final boolean isCenterAccurate;
+
+    /** Backing array of the primer of the current chunk */
+    private char[] data;
+
+    /** Surface altitude of each column of the current chunk, indexed by localX * 16 + localZ. -1 if not yet scanned. */
+    private int[] altitudes = new int[256];
+
+    /**
+     * Block state IDs are assigned when a world is loaded, so a heightmap should only be used with the world it was
+     * created for.
+     * @param isCenterAccurate true to test each sub-chunk's own center column when estimating its max surface altitude
+     */
+    public SurfaceHeightmap(boolean isCenterAccurate) {
+        this.isCenterAccurate = isCenterAccurate;
+        isSolid = new boolean[Character.MAX_VALUE + 1];
+        IBlockState air = Blocks.AIR.getDefaultState();
+        for (IBlockState state : Block.BLOCK_STATE_IDS) {
+            int id = Block.BLOCK_STATE_IDS.get(state);
+            if (id >= 0 && id < isSolid.length)
+                isSolid[id] = state != air && state.getMaterial() != Material.WATER;
+        }
+    }
+
+    /**
+     * Creates a heightmap for the same world as another heightmap, sharing its block state table.
+     * Heightmaps hold the altitudes of the chunk being generated, so each generating thread needs its own.
+     * @param other heightmap for the same world
+     */
+    public SurfaceHeightmap(SurfaceHeightmap other) {
+        isSolid = other.isSolid;
+        isCenterAccurate = other.isCenterAccurate;
+    }
+
+    /**
+     * Starts a new chunk, discarding the altitudes of the previous one.
+     * @param primer primer for chunk
+     */
+    public void setPrimer(ChunkPrimer primer) {
+        data = ChunkPrimerAccess.getData(primer);
+        for (int i = 0; i < 256; i++)
+            altitudes[i] = -1;
+    }
+
+    /**
+     * @param localX The column's chunk-local x-coordinate
+     * @param localZ The column's chunk-local z-coordinate
+     * @return The y-coordinate of the surface block of the column
+     */
+    public int getSurfaceAltitude(int localX, int localZ) {
+        int i = localX * 16 + localZ;
+        if (altitudes[i] < 0)
+            altitudes[i] = scanColumn(localX, localZ);
+        return altitudes[i];
+    }
+
+    /**
+     * Tests the four corner columns and a center column of a sub-chunk to approximate its max surface altitude.
+     * Equivalent to {@link BetterCavesUtil#estimateMaxSurfaceAltitudeSubChunk}, including its choice of center column:
+     * (endX - startX) / 2 leaves out startX, so every sub-chunk tests the same column of the chunk's first sub-chunk.
+     * Since that column is carved along with the first sub-chunk, it is scanned again on every call rather than cached.
+     * If this heightmap is center-accurate, the sub-chunk's own center column is tested instead, which only depends on
+     * the sub-chunk's own columns.
+     * @param startPos Position of the sub-chunk's starting corner column
+     * @param subChunkSize Width of the sub-chunk, in blocks
+     * @return y-coordinate of the approximate highest surface altitude in the sub-chunk
+     */
+    public int estimateMaxSurfaceAltitudeSubChunk(BlockPos startPos, int subChunkSize) {
+        int startX = BetterCavesUtil.getLocal(startPos.getX());
+        int startZ = BetterCavesUtil.getLocal(startPos.getZ());
+        int endX = startX + subChunkSize - 1;
+        int endZ = startZ + subChunkSize - 1;
+
+        int maxHeight = getSurfaceAltitude(startX, startZ);
+        if (subChunkSize == 1)
+            return maxHeight;
+
+        maxHeight = Math.max(maxHeight, getSurfaceAltitude(startX, endZ));
+        maxHeight = Math.max(maxHeight, getSurfaceAltitude(endX, startZ));
+        maxHeight = Math.max(maxHeight, getSurfaceAltitude(endX, endZ));
+        if (isCenterAccurate)
+            maxHeight = Math.max(maxHeight, getSurfaceAltitude(startX + (endX - startX) / 2, startZ + (endZ - startZ) / 2));
+        else
+            maxHeight = Math.max(maxHeight, scanColumn((endX - startX) / 2, (endZ - startZ) / 2));
+
+        return maxHeight;
+    }
+
+    /**
+     * Finds the surface altitude of a column with a single pass over its blocks.
+     */
+    private int scanColumn(int localX, int localZ) {
+        int base = ChunkPrimerAccess.index(localX, 0, localZ);
+
+        // Edge case: blocks go all the way up to build height
+        if (isSolid[data[base + 255]])
+            return 255;
+
+        int y = 0;
+        while (isSolid[data[base + y]])
+            y++;
+        return y;
+    }
+}
@@ -1,34 +1,47 @@
 package com.yungnickyoung.minecraft.bettercaves.world.bedrock;
 
+import com.yungnickyoung.minecraft.bettercaves.util.ChunkPrimerAccess;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.world.chunk.ChunkPrimer;
 
+import java.util.Arrays;
+
 /**
  * Class containing static method for flattening bedrock.
  */
 public class FlattenBedrock {
     private static final IBlockState BEDROCK = Blocks.BEDROCK.getDefaultState();
 
+    /** Height below which the usual bedrock pattern generates */
+    private static final int BEDROCK_PATTERN_HEIGHT = 5;
+
     /**
-     * Flattens bedrock in a given chunk
+     * Flattens bedrock in a given chunk, in a single pass over the bottom layers of each column.
+     * Layers below bedrockLayerWidth are filled with bedrock, and any bedrock left above them in the usual
+     * bedrock pattern is replaced with the replacement block.
      * @param primer The chunk's ChunkPrimer
      * @param bedrockLayerWidth Width of the bedrock layer, in blocks
+     * @param replacementBlock The block to replace the usual bedrock pattern with
      */
-    public static void flattenBedrock(ChunkPrimer primer, int bedrockLayerWidth) {
-        IBlockState replacementBlock = Blocks.STONE.getDefaultState();
-
-        // Replace normal bedrock at bottom of map with stone
-        for (int x = 0; x < 16; x++)
-            for (int z = 0; z < 16; z++)
-                for (int y = 0; y < 5; y++)
-                    if (primer.getBlockState(x, y, z) == BEDROCK)
-                        primer.setBlockState(x, y, z, replacementBlock);
-
-        // Create bedrock layer(s) at bottom of map
-        for (int x = 0; x < 16; x++)
-            for (int z = 0; z < 16; z++)
-                for (int y = 0; y < bedrockLayerWidth; y++)
-                    primer.setBlockState(x, y, z, BEDROCK);
+    public static void flattenBedrock(ChunkPrimer primer, int bedrockLayerWidth, IBlockState replacementBlock) {
+        char[] data = ChunkPrimerAccess.getData(primer);
+        int bedrockId = ChunkPrimerAccess.getReadableStateId(BEDROCK);
+        char bedrock = ChunkPrimerAccess.getStateId(BEDROCK);
+        char replacement = ChunkPrimerAccess.getStateId(replacementBlock);
+        int layerTop = Math.min(bedrockLayerWidth, 256);
+
+        // The bottom layers of each column are contiguous in the primer's data
+        for (int column = 0; column < 256; column++) {
+            int base = column << 8;
+
+            // Create bedrock layer(s) at bottom of map
+            Arrays.fill(data, base, base + layerTop, bedrock);
+
+            // Replace normal bedrock above the layer(s) with the replacement block
+            for (int i = base + layerTop; i < base + BEDROCK_PATTERN_HEIGHT; i++)
+                if (data[i] == bedrockId)
+                    data[i] = replacement;
+        }
     }
 }
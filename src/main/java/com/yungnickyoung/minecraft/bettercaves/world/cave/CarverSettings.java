@@ -12,7 +12,9 @@ public class CarverSettings {
     /* ------------- Ridged Multifractal Params ------------- */
     private NoiseSettings noiseSettings = new NoiseSettings();
     private boolean       isFastNoise; // True if using the FastNoise library; false if using OpenSimplex2S
+    private boolean       isFloatSimplex; // True to use the single-precision OpenSimplex2S variant. Only used if not FastNoise
     private int           numGens; // Number of noise values to generate per iteration (block, sub-chunk, etc)
+    private boolean       lazyNoiseEvaluation; // True to only evaluate generators after the first where they can affect carving
 
     /* -------------- Noise Processing Params -------------- */
     private float yCompression;   // Vertical cave gen compression
@@ -64,6 +66,14 @@ public class CarverSettings {
         isFastNoise = fastNoise;
     }
 
+    public boolean isFloatSimplex() {
+        return isFloatSimplex;
+    }
+
+    public void setFloatSimplex(boolean floatSimplex) {
+        isFloatSimplex = floatSimplex;
+    }
+
     public int getNumGens() {
         return numGens;
     }
@@ -72,6 +82,14 @@ public class CarverSettings {
         this.numGens = numGens;
     }
 
+    public boolean isLazyNoiseEvaluation() {
+        return lazyNoiseEvaluation;
+    }
+
+    public void setLazyNoiseEvaluation(boolean lazyNoiseEvaluation) {
+        this.lazyNoiseEvaluation = lazyNoiseEvaluation;
+    }
+
     public float getyCompression() {
         return yCompression;
     }
@@ -2,6 +2,8 @@ package com.yungnickyoung.minecraft.bettercaves.world.cave;
 
 import com.yungnickyoung.minecraft.bettercaves.config.Settings;
 import com.yungnickyoung.minecraft.bettercaves.util.BetterCavesUtil;
+import com.yungnickyoung.minecraft.bettercaves.util.ChunkPrimerAccess;
+import com.yungnickyoung.minecraft.bettercaves.world.GenerationMetrics;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockSand;
 import net.minecraft.block.BlockStone;
@@ -9,8 +11,6 @@ import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.World;
-import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.ChunkPrimer;
 
 /**
@@ -24,10 +24,39 @@ public class CarverUtils {
     /* IBlockStates used in this class */
     private static final IBlockState AIR = Blocks.AIR.getDefaultState();
     private static final IBlockState SAND = Blocks.SAND.getDefaultState();
+    private static final IBlockState RED_SAND = SAND.withProperty(BlockSand.VARIANT, BlockSand.EnumType.RED_SAND);
     private static final IBlockState SANDSTONE = Blocks.SANDSTONE.getDefaultState();
     private static final IBlockState REDSANDSTONE = Blocks.RED_SANDSTONE.getDefaultState();
     private static final IBlockState GRAVEL = Blocks.GRAVEL.getDefaultState();
     private static final IBlockState ANDESITE = Blocks.STONE.getDefaultState().withProperty(BlockStone.VARIANT, BlockStone.EnumType.ANDESITE);
+    private static final IBlockState LOG = Blocks.LOG.getDefaultState();
+    private static final IBlockState LOG2 = Blocks.LOG2.getDefaultState();
+    private static final IBlockState BEDROCK = Blocks.BEDROCK.getDefaultState();
+
+    /* Flags describing how a block state is treated during carving */
+    /** The block can be replaced regardless of the block above it */
+    private static final byte REPLACEABLE = 1;
+    /** The block is sand or gravel, and can only be replaced if water is not directly above it */
+    private static final byte SAND_OR_GRAVEL = 2;
+    /** The block is a water block */
+    private static final byte WATER = 4;
+    /** The block is a log, so the block below it must not be dug out */
+    private static final byte PROTECTS_BELOW = 8;
+    /** The block is read as air. This includes block state IDs without a block state. */
+    private static final byte IS_AIR = 16;
+
+    /**
+     * Flags for each block state, indexed by block state ID.
+     * Built by {@link #initializeBlockFlags}; null until then, in which case flags are computed on each call.
+     */
+    private static volatile byte[] blockStateFlags = null;
+
+    /*
+     * IDs of the block states used in this class, set by initializeBlockFlags before the flags table is published.
+     * IDs compared against are -1 if no ID is read back as the block state.
+     */
+    private static int sandId = -1, redSandId = -1, gravelId = -1;
+    private static char airId, sandstoneId, redSandstoneId, andesiteId;
 
     /**
      * Digs out the current block, default implementation removes stone, filler, and top block.
@@ -35,51 +64,78 @@ public class CarverUtils {
      * If setting to air, it also checks to see if we've broken the surface, and if so,
      * tries to make the floor the biome's top block.
      *
-     * @param world the Minecraft world this block is in
+     * @param context the context of the column this block is in, set to the block's column
      * @param primer the ChunkPrimer containing the block
      * @param blockPos The block's position
      * @param liquidBlockState the BlockState to use for liquids. If you want regular lava, you can either specify it, or
      *                       use the wrapper function without this param
      * @param liquidAltitude altitude at and below which air is replaced with liquidBlockState
      */
-    public static void digBlock(World world, ChunkPrimer primer, BlockPos blockPos, IBlockState liquidBlockState, int liquidAltitude, boolean replaceGravel) {
-        int localX = BetterCavesUtil.getLocal(blockPos.getX());
-        int localZ = BetterCavesUtil.getLocal(blockPos.getZ());
-        int y = blockPos.getY();
+    public static void digBlock(ColumnContext context, ChunkPrimer primer, BlockPos blockPos, IBlockState liquidBlockState, int liquidAltitude, boolean replaceGravel) {
+        digBlock(context, ChunkPrimerAccess.getData(primer), BetterCavesUtil.getLocal(blockPos.getX()), blockPos.getY(),
+                BetterCavesUtil.getLocal(blockPos.getZ()), ChunkPrimerAccess.getStateId(liquidBlockState),
+                liquidBlockState.getMaterial() == Material.WATER, liquidAltitude, replaceGravel);
+    }
+
+    /**
+     * Digs out the current block, working directly on a primer's backing array.
+     * Identical to {@link #digBlock(ColumnContext, ChunkPrimer, BlockPos, IBlockState, int, boolean)}, except that the
+     * liquid block is given by its ID, so that it only has to be looked up once per column.
+     *
+     * @param context the context of the column this block is in, set to the block's column
+     * @param data the backing array of the ChunkPrimer containing the block, from {@link ChunkPrimerAccess#getData}
+     * @param localX The block's chunk-local x-coordinate
+     * @param y The block's y-coordinate
+     * @param localZ The block's chunk-local z-coordinate
+     * @param liquidId the ID of the block state to use for liquids
+     * @param isLiquidWater true if the liquid block is a water block
+     * @param liquidAltitude altitude at and below which air is replaced with the liquid block
+     */
+    public static void digBlock(ColumnContext context, char[] data, int localX, int y, int localZ, char liquidId,
+                                boolean isLiquidWater, int liquidAltitude, boolean replaceGravel) {
+        byte[] flags = getBlockFlagsTable();
 
         // Check for adjacent water blocks to avoid breaking into lakes or oceans
-        if (liquidBlockState.getMaterial() != Material.WATER) {
-            if (isWaterAdjacent(primer, blockPos)) return;
+        if (!isLiquidWater) {
+            if (isWaterAdjacent(flags, data, localX, y, localZ)) return;
         }
 
-        IBlockState blockState = primer.getBlockState(localX, y, localZ);
-        IBlockState blockStateAbove = primer.getBlockState(localX, y + 1, localZ);
-        Biome biome = world.getBiome(blockPos);
-        Block biomeTopBlock = biome.topBlock.getBlock();
-        Block biomeFillerBlock = biome.fillerBlock.getBlock();
+        int index = ChunkPrimerAccess.index(localX, y, localZ);
+        int indexAbove = ChunkPrimerAccess.index(localX, y + 1, localZ);
+        char id = data[index];
+        char idAbove = data[indexAbove];
 
         // Only continue if the block is replaceable
-        if (canReplaceBlock(blockState, blockStateAbove) || blockState.getBlock() == biomeTopBlock || blockState.getBlock() == biomeFillerBlock) {
+        if (canReplaceBlock(getFlags(flags, id), getFlags(flags, idAbove))
+                || ChunkPrimerAccess.getState(id).getBlock() == context.getTopBlock()
+                || ChunkPrimerAccess.getState(id).getBlock() == context.getFillerBlock()) {
+            GenerationMetrics.ChunkMetrics metrics = context.getMetrics();
             if ( y <= liquidAltitude) { // Replace any air below the liquid altitude with the liquid block passed in
-                primer.setBlockState(localX, y, localZ, liquidBlockState);
+                data[index] = liquidId;
+                if (metrics != null)
+                    metrics.countLiquidPlaced();
             }
             else {
+                if (metrics != null)
+                    metrics.countBlockDug();
+
                 // Adjust block below if block removed is biome top block
-                if (isTopBlock(world, primer, blockPos) && canReplaceBlock(primer.getBlockState(localX, y - 1, localZ), AIR))
-                    primer.setBlockState(localX, y - 1, localZ, biome.topBlock);
+                int indexBelow = ChunkPrimerAccess.index(localX, y - 1, localZ);
+                if (ChunkPrimerAccess.getState(id) == context.getTopBlockState() && canReplaceBlock(getFlags(flags, data[indexBelow]), getBlockFlags(AIR)))
+                    data[indexBelow] = ChunkPrimerAccess.getStateId(context.getTopBlockState());
 
                 // Replace this block with air, effectively "digging" it out
-                primer.setBlockState(localX, y, localZ, AIR);
+                data[index] = airId;
 
                 // Replace floating sand with sandstone
-                if (blockStateAbove == SAND)
-                    primer.setBlockState(localX, y + 1, localZ, SANDSTONE);
-                else if (blockStateAbove == SAND.withProperty(BlockSand.VARIANT, BlockSand.EnumType.RED_SAND))
-                    primer.setBlockState(localX, y + 1, localZ, REDSANDSTONE);
+                if (idAbove == sandId)
+                    data[indexAbove] = sandstoneId;
+                else if (idAbove == redSandId)
+                    data[indexAbove] = redSandstoneId;
 
                 // Replace floating gravel with andesite, if enabled
-                if (replaceGravel && blockStateAbove == GRAVEL)
-                    primer.setBlockState(localX, y + 1, localZ, ANDESITE);
+                if (replaceGravel && idAbove == gravelId)
+                    data[indexAbove] = andesiteId;
             }
         }
     }
@@ -92,31 +148,21 @@ public class CarverUtils {
      * @param blockState The blockState to set dug out blocks to
      */
     public static void debugDigBlock(ChunkPrimer primer, BlockPos blockPos, IBlockState blockState, boolean digBlock) {
-        int localX = BetterCavesUtil.getLocal(blockPos.getX());
-        int localZ = BetterCavesUtil.getLocal(blockPos.getZ());
-        int y = blockPos.getY();
-
-        if (digBlock)
-            primer.setBlockState(localX, y, localZ, blockState);
-        else
-            primer.setBlockState(localX, y, localZ, Blocks.AIR.getDefaultState());
+        debugDigBlock(ChunkPrimerAccess.getData(primer), BetterCavesUtil.getLocal(blockPos.getX()), blockPos.getY(),
+                BetterCavesUtil.getLocal(blockPos.getZ()), ChunkPrimerAccess.getStateId(blockState), digBlock);
     }
 
     /**
-     * Determine if the block at the specified location is the designated top block for the biome.
-     *
-     * @param world the Minecraft world this block is in
-     * @param primer the ChunkPrimer containing the block
-     * @param blockPos The block's position
-     * @return true if this block is the same type as the biome's designated top block
+     * DEBUG method for visualizing cave systems, working directly on a primer's backing array.
+     * @param data the backing array of the ChunkPrimer containing the block, from {@link ChunkPrimerAccess#getData}
+     * @param localX The block's chunk-local x-coordinate
+     * @param y The block's y-coordinate
+     * @param localZ The block's chunk-local z-coordinate
+     * @param blockStateId The ID of the block state to set dug out blocks to
      */
-    public static boolean isTopBlock(World world, ChunkPrimer primer, BlockPos blockPos) {
-        int localX = BetterCavesUtil.getLocal(blockPos.getX());
-        int localZ = BetterCavesUtil.getLocal(blockPos.getZ());
-        int y = blockPos.getY();
-        Biome biome = world.getBiome(blockPos);
-        IBlockState blockState = primer.getBlockState(localX, y, localZ);
-        return blockState == biome.topBlock;
+    public static void debugDigBlock(char[] data, int localX, int y, int localZ, char blockStateId, boolean digBlock) {
+        getBlockFlagsTable();
+        data[ChunkPrimerAccess.index(localX, y, localZ)] = digBlock ? blockStateId : airId;
     }
 
     /**
@@ -128,27 +174,142 @@ public class CarverUtils {
      * @return true if the blockState can be replaced
      */
     public static boolean canReplaceBlock(IBlockState blockState, IBlockState blockStateAbove) {
+        return canReplaceBlock(getBlockFlags(blockState), getBlockFlags(blockStateAbove));
+    }
+
+    private static boolean canReplaceBlock(int flags, int flagsAbove) {
+        // Avoid digging out under trees
+        if ((flagsAbove & PROTECTS_BELOW) != 0)
+            return false;
+
+        if ((flags & REPLACEABLE) != 0)
+            return true;
+
+        // Only accept gravel and sand if water is not directly above it
+        return (flags & SAND_OR_GRAVEL) != 0 && (flagsAbove & WATER) == 0;
+    }
+
+    /**
+     * Determines if a block is suitable to be replaced during cave generation, working on block state IDs.
+     * Equivalent to {@link #canReplaceBlock(IBlockState, IBlockState)} for the block states the IDs are read as.
+     *
+     * @param id the block's block state ID
+     * @param idAbove the block state ID of the block above this one
+     * @return true if the block can be replaced
+     */
+    public static boolean canReplaceBlock(char id, char idAbove) {
+        byte[] flags = getBlockFlagsTable();
+        return canReplaceBlock(getFlags(flags, id), getFlags(flags, idAbove));
+    }
+
+    /**
+     * @return the block state ID of air
+     */
+    public static char getAirId() {
+        getBlockFlagsTable();
+        return airId;
+    }
+
+    /**
+     * @param id a block state ID
+     * @return true if the ID is read as air
+     */
+    public static boolean isAir(char id) {
+        return (getFlags(getBlockFlagsTable(), id) & IS_AIR) != 0;
+    }
+
+    /**
+     * Builds the table of flags for every registered block state, so that checks during carving are a single lookup.
+     * Must be called after block registries are frozen, and again whenever block state IDs may have changed.
+     */
+    public static void initializeBlockFlags() {
+        int maxId = 0;
+        for (IBlockState blockState : Block.BLOCK_STATE_IDS)
+            maxId = Math.max(maxId, Block.BLOCK_STATE_IDS.get(blockState));
+
+        // Several IDs may be read as the same block state, so flags are assigned by ID, as read by the primer
+        byte[] flags = new byte[maxId + 1];
+        for (int id = 0; id <= maxId; id++)
+            flags[id] = computeBlockFlags(ChunkPrimerAccess.getState((char) id));
+
+        sandId = ChunkPrimerAccess.getReadableStateId(SAND);
+        redSandId = ChunkPrimerAccess.getReadableStateId(RED_SAND);
+        gravelId = ChunkPrimerAccess.getReadableStateId(GRAVEL);
+        airId = ChunkPrimerAccess.getStateId(AIR);
+        sandstoneId = ChunkPrimerAccess.getStateId(SANDSTONE);
+        redSandstoneId = ChunkPrimerAccess.getStateId(REDSANDSTONE);
+        andesiteId = ChunkPrimerAccess.getStateId(ANDESITE);
+
+        blockStateFlags = flags;
+    }
+
+    /**
+     * @return the flags table, building it first if needed
+     */
+    private static byte[] getBlockFlagsTable() {
+        byte[] flags = blockStateFlags;
+        if (flags == null) {
+            initializeBlockFlags();
+            flags = blockStateFlags;
+        }
+        return flags;
+    }
+
+    /**
+     * @return the flags for a block state ID, from the lookup table if possible
+     */
+    private static int getFlags(byte[] flags, char id) {
+        return id < flags.length ? flags[id] : computeBlockFlags(ChunkPrimerAccess.getState(id));
+    }
+
+    /**
+     * @return the flags for a block state, from the lookup table if possible
+     */
+    private static int getBlockFlags(IBlockState blockState) {
+        byte[] flags = blockStateFlags;
+        if (flags != null) {
+            int id = Block.BLOCK_STATE_IDS.get(blockState);
+            if (id >= 0 && id < flags.length)
+                return flags[id];
+        }
+
+        // Table not built yet, or block state not registered
+        return computeBlockFlags(blockState);
+    }
+
+    /**
+     * Classifies a block state for carving.
+     * @param blockState the block's IBlockState
+     * @return the block state's flags
+     */
+    private static byte computeBlockFlags(IBlockState blockState) {
         Block block = blockState.getBlock();
+        Material material = blockState.getMaterial();
+        byte flags = 0;
+
+        if (blockState == AIR)
+            flags |= IS_AIR;
+
+        if (material == Material.WATER)
+            flags |= WATER;
+
+        if (blockState == LOG || blockState == LOG2)
+            flags |= PROTECTS_BELOW;
 
         // Avoid damaging trees
         if (block == Blocks.LEAVES
                 || block == Blocks.LEAVES2
                 || block == Blocks.LOG
                 || block == Blocks.LOG2)
-            return false;
-
-        // Avoid digging out under trees
-        if (blockStateAbove == Blocks.LOG.getDefaultState()
-                || blockStateAbove == Blocks.LOG2.getDefaultState())
-            return false;
+            return flags;
 
         // Don't mine bedrock
-        if (blockState == Blocks.BEDROCK.getDefaultState())
-            return false;
+        if (blockState == BEDROCK)
+            return flags;
 
         // Accept stone-like blocks added from other mods
-        if (blockState.getMaterial() == Material.ROCK)
-            return true;
+        if (material == Material.ROCK)
+            return (byte)(flags | REPLACEABLE);
 
         // Mine-able blocks
         if (block == Blocks.STONE
@@ -160,22 +321,23 @@ public class CarverUtils {
                 || block == Blocks.RED_SANDSTONE
                 || block == Blocks.MYCELIUM
                 || block  == Blocks.SNOW_LAYER)
-            return true;
+            return (byte)(flags | REPLACEABLE);
 
-        // Only accept gravel and sand if water is not directly above it
-        return (block == Blocks.SAND || block == Blocks.GRAVEL)
-                && blockStateAbove.getMaterial() != Material.WATER;
+        if (block == Blocks.SAND || block == Blocks.GRAVEL)
+            flags |= SAND_OR_GRAVEL;
+
+        return flags;
     }
 
-    private static boolean isWaterAdjacent(ChunkPrimer primer, BlockPos blockPos) {
-        int localX = BetterCavesUtil.getLocal(blockPos.getX());
-        int localZ = BetterCavesUtil.getLocal(blockPos.getZ());
-        int y = blockPos.getY();
+    private static boolean isWaterAdjacent(byte[] flags, char[] data, int localX, int y, int localZ) {
+        return isWater(flags, data[ChunkPrimerAccess.index(localX, y + 1, localZ)])
+                || localX < 15 && isWater(flags, data[ChunkPrimerAccess.index(localX + 1, y, localZ)])
+                || localX > 0 && isWater(flags, data[ChunkPrimerAccess.index(localX - 1, y, localZ)])
+                || localZ < 15 && isWater(flags, data[ChunkPrimerAccess.index(localX, y, localZ + 1)])
+                || localZ > 0 && isWater(flags, data[ChunkPrimerAccess.index(localX, y, localZ - 1)]);
+    }
 
-        return primer.getBlockState(localX, y + 1, localZ).getMaterial() == Material.WATER
-                || localX < 15 && primer.getBlockState(localX + 1, y, localZ).getMaterial() == Material.WATER
-                || localX > 0 && primer.getBlockState(localX - 1, y, localZ).getMaterial() == Material.WATER
-                || localZ < 15 && primer.getBlockState(localX, y, localZ + 1).getMaterial() == Material.WATER
-                || localZ > 0 && primer.getBlockState(localX, y, localZ - 1).getMaterial() == Material.WATER;
+    private static boolean isWater(byte[] flags, char id) {
+        return (getFlags(flags, id) & WATER) != 0;
     }
 }
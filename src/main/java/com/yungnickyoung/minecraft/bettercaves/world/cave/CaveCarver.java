@@ -1,62 +1,78 @@
 package com.yungnickyoung.minecraft.bettercaves.world.cave;
 
 import com.yungnickyoung.minecraft.bettercaves.config.Settings;
-import com.yungnickyoung.minecraft.bettercaves.noise.NoiseColumn;
+import com.yungnickyoung.minecraft.bettercaves.noise.NoiseBuffer;
 import com.yungnickyoung.minecraft.bettercaves.noise.NoiseGen;
-import com.yungnickyoung.minecraft.bettercaves.noise.NoiseTuple;
 import com.yungnickyoung.minecraft.bettercaves.util.BetterCavesUtil;
+import com.yungnickyoung.minecraft.bettercaves.util.ChunkPrimerAccess;
+import com.yungnickyoung.minecraft.bettercaves.world.GenerationMetrics;
 import com.yungnickyoung.minecraft.bettercaves.world.cave.builder.CaveCarverBuilder;
+import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.chunk.ChunkPrimer;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 /**
  * BetterCaves Cave carver
  */
 public class CaveCarver {
-    private CarverSettings settings;
-    private NoiseGen noiseGen;
-    private int surfaceCutoff;
+    private final CarverSettings settings;
+    private final NoiseGen noiseGen;
+    private final int surfaceCutoff;
 
     /**
      * Set true to perform pre-processing on noise values, adjusting them to increase ...
      * ... headroom in the y direction.
      */
-    private boolean enableYAdjust;
+    private final boolean enableYAdjust;
 
     /** Adjustment value for the block immediately above. Must be between 0 and 1.0 */
-    private float yAdjustF1;
+    private final float yAdjustF1;
 
     /** Adjustment value for the block two blocks above. Must be between 0 and 1.0 */
-    private float yAdjustF2;
+    private final float yAdjustF2;
+
+    /**
+     * Per-thread noise thresholds for each y-coordinate, keyed by the transition boundary.
+     * Reused across columns, and only recomputed when the column bounds or transition boundary change.
+     * In practice this means once per sub-chunk, since all columns in a sub-chunk share the same max surface height.
+     */
+    private final ThreadLocal<ThresholdTable> thresholdTables = ThreadLocal.withInitial(ThresholdTable::new);
+
+    /** Per-thread threshold tables used when generating noise cubes, which may happen on several threads at once */
+    private static final ThreadLocal<float[]> cubeThresholds = ThreadLocal.withInitial(() -> new float[256]);
+
+    /** Margin by which a threshold must exceed 1 to rule out digging with noise values between -1 and 1 */
+    private static final float UNIT_BOUND_TOLERANCE = 1e-5f;
 
     public CaveCarver(final CaveCarverBuilder builder) {
         settings = builder.getSettings();
         noiseGen = new NoiseGen(
                 settings.getWorld(),
                 settings.isFastNoise(),
+                settings.isFloatSimplex(),
                 settings.getNoiseSettings(),
                 settings.getNumGens(),
                 settings.getyCompression(),
                 settings.getXzCompression()
         );
+        noiseGen.setLazyEvaluation(settings.isLazyNoiseEvaluation());
         surfaceCutoff = builder.getSurfaceCutoff();
         enableYAdjust = builder.isEnableYAdjust();
         yAdjustF1 = builder.getyAdjustF1();
         yAdjustF2 = builder.getyAdjustF2();
     }
 
-    public void generateColumnWithNoise(ChunkPrimer primer, BlockPos colPos, int bottomY,
+    public void generateColumnWithNoise(ChunkPrimer primer, ColumnContext context, BlockPos colPos, int bottomY,
                                         int topY, int maxSurfaceHeight, int minSurfaceHeight,
-                                        IBlockState liquidBlock, NoiseColumn noises, boolean liquidBuffer) {
+                                        IBlockState liquidBlock, NoiseBuffer noises, boolean liquidBuffer) {
         int localX = BetterCavesUtil.getLocal(colPos.getX());
         int localZ = BetterCavesUtil.getLocal(colPos.getZ());
 
+        // Position of this column in the noise buffer
+        int noiseX = colPos.getX() - noises.getOriginX();
+        int noiseZ = colPos.getZ() - noises.getOriginZ();
+
         // Validate vars
         if (localX < 0 || localX > 15)
             return;
@@ -68,63 +84,123 @@ public class CaveCarver {
             return;
 
         // Altitude at which caves start closing off so they aren't all open to the surface
-        int transitionBoundary = maxSurfaceHeight - surfaceCutoff;
-
-        // Validate transition boundary
-        if (transitionBoundary < 1)
-            transitionBoundary = 1;
+        int transitionBoundary = getTransitionBoundary(maxSurfaceHeight);
 
         // Pre-compute thresholds to ensure accuracy during pre-processing
-        Map<Integer, Float> thresholds = generateThresholds(topY, bottomY, transitionBoundary);
+        float[] thresholds = generateThresholds(topY, bottomY, transitionBoundary);
+
+        // The noise buffer may stop above bottomY if the column has a liquid buffer, and below topY where the
+        // thresholds are too high for any block to be dug. The blocks outside it are never dug.
+        int noiseTopY = Math.min(topY, noises.getMaxY());
 
         // Do some pre-processing on the noises to facilitate better cave generation.
         // Basically this makes caves taller to give players more headroom.
         // See the javadoc for the function for more info.
+        // Blocks below the noise buffer are never dug, so they don't need to be adjusted either.
         if (this.enableYAdjust)
-            preprocessCaveNoiseCol(noises, topY, bottomY, thresholds, settings.getNumGens());
+            preprocessCaveNoiseCol(noises, noiseX, noiseZ, noiseTopY, Math.max(bottomY, noises.getMinY()), thresholds, settings.getNumGens());
+
+        // Blocks are read and written directly through the primer's backing array
+        char[] data = ChunkPrimerAccess.getData(primer);
+        char liquidId = ChunkPrimerAccess.getStateId(liquidBlock);
+        boolean isLiquidWater = liquidBlock.getMaterial() == Material.WATER;
+        char debugBlockId = ChunkPrimerAccess.getStateId(settings.getDebugBlock());
 
         /* =============== Dig out caves and caverns in this column, based on noise values =============== */
-        for (int y = topY; y >= bottomY; y--) {
+        double[] noiseValues = noises.getValues();
+        int numGens = noises.getNumGens();
+        for (int y = noiseTopY; y >= bottomY; y--) {
             if (y <= settings.getLiquidAltitude() && liquidBuffer)
                 break;
 
-            List<Double> noiseBlock = noises.get(y).getNoiseValues();
+            int noiseIndex = noises.index(noiseX, noiseZ, y);
+            float threshold = thresholds[y];
             boolean digBlock = true;
 
-            for (double noise : noiseBlock) {
-                if (noise < thresholds.get(y)) {
+            for (int i = 0; i < numGens; i++) {
+                if (noiseValues[noiseIndex + i] < threshold) {
                     digBlock = false;
                     break;
                 }
             }
 
-            BlockPos blockPos = new BlockPos(colPos.getX(), y, colPos.getZ());
-
             // Dig out the block if it passed the threshold check, using the debug visualizer if enabled
             if (settings.isEnableDebugVisualizer()) {
-                CarverUtils.debugDigBlock(primer, blockPos, settings.getDebugBlock(), digBlock);
+                CarverUtils.debugDigBlock(data, localX, y, localZ, debugBlockId, digBlock);
             }
             else if (digBlock) {
-                CarverUtils.digBlock(settings.getWorld(), primer, blockPos, liquidBlock, settings.getLiquidAltitude(), settings.isReplaceFloatingGravel());
+                CarverUtils.digBlock(context, data, localX, y, localZ, liquidId, isLiquidWater, settings.getLiquidAltitude(), settings.isReplaceFloatingGravel());
             }
         }
 
         /* ============ Post-Processing to remove any singular floating blocks in the ease-in range ============ */
-        IBlockState blockStateAir = Blocks.AIR.getDefaultState();
+        GenerationMetrics.ChunkMetrics metrics = context.getMetrics();
+        long postProcessingStart = metrics != null ? System.nanoTime() : 0;
         for (int y = transitionBoundary + 1; y < topY; y++) {
             if (y < 1)
                 break;
 
-            IBlockState currBlock = primer.getBlockState(localX, y, localZ);
+            char currBlock = data[ChunkPrimerAccess.index(localX, y, localZ)];
 
-            if (CarverUtils.canReplaceBlock(currBlock, blockStateAir)
-                    && primer.getBlockState(localX, y + 1, localZ) == blockStateAir
-                    && primer.getBlockState(localX, y - 1, localZ) == blockStateAir
+            if (CarverUtils.canReplaceBlock(currBlock, CarverUtils.getAirId())
+                    && CarverUtils.isAir(data[ChunkPrimerAccess.index(localX, y + 1, localZ)])
+                    && CarverUtils.isAir(data[ChunkPrimerAccess.index(localX, y - 1, localZ)])
             ) {
-                BlockPos blockPos = new BlockPos(colPos.getX(), y, colPos.getZ());
-                CarverUtils.digBlock(settings.getWorld(), primer, blockPos, liquidBlock, settings.getLiquidAltitude(), settings.isReplaceFloatingGravel());
+                CarverUtils.digBlock(context, data, localX, y, localZ, liquidId, isLiquidWater, settings.getLiquidAltitude(), settings.isReplaceFloatingGravel());
             }
         }
+
+        if (metrics != null)
+            metrics.addTime(GenerationMetrics.Stage.POST_PROCESSING, postProcessingStart);
+    }
+
+    /**
+     * Generate the noise cube for a sub-chunk, using this carver's lazy evaluation setting.
+     * Noise is only generated for the y-coordinates the sub-chunk's columns can read. The cube is empty if there
+     * are none, e.g. if the cave's bottom is above its top.
+     * If every noise value is between -1 and 1, the cube also stops below the y-coordinates where the transition to
+     * the surface raises the threshold above 1, since no block there can be dug. y-adjustment only mixes values
+     * upwards, and averages them, so it can't raise a value above 1 or carry those blocks' values below them.
+     * This is skipped with the debug visualizer, which marks every block the carver checks.
+     * @param startPos Position of any block in the starting corner column of the cube
+     * @param endPos Position of any block in the ending corner column of the cube
+     * @param bottomY The bottom y-coordinate of the caves
+     * @param topY The top y-coordinate of the cube's columns. This must also be the top y-coordinate and max surface
+     *             height the sub-chunk's columns are carved with, since the cube's range and lazy evaluation depend
+     *             on their thresholds.
+     * @param liquidBuffer true if every column of the sub-chunk carved with this cube has a liquid buffer, in which
+     *                     case the noise below the liquid altitude is only generated where y-adjustment reads it
+     * @param out The buffer to write to
+     * @return out
+     */
+    public NoiseBuffer interpolateNoiseCube(BlockPos startPos, BlockPos endPos, int bottomY, int topY,
+                                           boolean liquidBuffer, NoiseBuffer out) {
+        int adjustRange = enableYAdjust ? 2 : 0;
+
+        // Columns with invalid bounds are skipped when carving
+        int noiseBottomY = bottomY;
+        if (bottomY < 0 || bottomY > 255 || topY < 0 || topY > 255)
+            noiseBottomY = topY + 1;
+        else if (liquidBuffer)
+            noiseBottomY = Math.max(bottomY, settings.getLiquidAltitude() + 1 - adjustRange);
+
+        boolean isCapped = noiseGen.isUnitBounded() && !settings.isEnableDebugVisualizer();
+        if (!isCapped && !settings.isLazyNoiseEvaluation())
+            return noiseGen.interpolateNoiseCube(startPos, endPos, noiseBottomY, topY, out);
+
+        float[] thresholds = cubeThresholds.get();
+        computeThresholds(topY, noiseBottomY, getTransitionBoundary(topY), thresholds);
+
+        // Thresholds only increase with altitude, so this leaves out every block whose threshold rules out digging
+        int noiseTopY = topY;
+        if (isCapped) {
+            while (noiseTopY >= noiseBottomY && thresholds[noiseTopY] > 1 + UNIT_BOUND_TOLERANCE)
+                noiseTopY--;
+        }
+
+        if (!settings.isLazyNoiseEvaluation())
+            return noiseGen.interpolateNoiseCube(startPos, endPos, noiseBottomY, noiseTopY, out);
+        return noiseGen.interpolateNoiseCube(startPos, endPos, noiseBottomY, noiseTopY, out, thresholds, adjustRange);
     }
 
     /**
@@ -132,22 +208,27 @@ public class CaveCarver {
      * This function adjusts the noise value of blocks based on the noise values of blocks below.
      * This has the effect of raising the ceilings of caves, giving the player more headroom.
      * Big shoutouts to the guys behind Worley's Caves for this great idea.
-     * @param noises The column of noises as a map, mapping the y-coordinate of a block to its NoiseTuple
+     * @param noises The buffer holding the column of noises
+     * @param noiseX local x index of the column in the noise buffer
+     * @param noiseZ local z index of the column in the noise buffer
      * @param topY Top y-coordinate of the noise column
      * @param bottomY Bottom y-coordinate of the noise column
-     * @param thresholds Map of y-coordinates to noise thresholds. This is the output of the generateThresholds method.
-     * @param numGens Number of noise values to create per block. This is equal to the number of floats held
-     *                in each NoiseTuple for each block in the noise column.
+     * @param thresholds Array of noise thresholds, indexed by y-coordinate. This is the output of the generateThresholds method.
+     * @param numGens Number of noise values to create per block. This is equal to the number of values held
+     *                in the noise buffer for each block in the noise column.
      */
-    private void preprocessCaveNoiseCol(NoiseColumn noises, int topY, int bottomY, Map<Integer, Float> thresholds, int numGens) {
+    private void preprocessCaveNoiseCol(NoiseBuffer noises, int noiseX, int noiseZ, int topY, int bottomY,
+                                        float[] thresholds, int numGens) {
+        double[] noiseValues = noises.getValues();
+
         /* Adjust simplex noise values based on blocks above in order to give the player more headroom */
         for (int realY = topY; realY >= bottomY; realY--) {
-            NoiseTuple noiseBlock = noises.get(realY);
-            float threshold = thresholds.get(realY);
+            int noiseBlock = noises.index(noiseX, noiseZ, realY);
+            float threshold = thresholds[realY];
 
             boolean valid = true;
-            for (double noise : noiseBlock.getNoiseValues()) {
-                if (noise < threshold) {
+            for (int i = 0; i < numGens; i++) {
+                if (noiseValues[noiseBlock + i] < threshold) {
                     valid = false;
                     break;
                 }
@@ -160,40 +241,64 @@ public class CaveCarver {
 
                 // Adjust block one above
                 if (realY < topY) {
-                    NoiseTuple tupleAbove = noises.get(realY + 1);
+                    int blockAbove = noises.index(noiseX, noiseZ, realY + 1);
                     for (int i = 0; i < numGens; i++)
-                        tupleAbove.set(i, ((1 - f1) * tupleAbove.get(i)) + (f1 * noiseBlock.get(i)));
+                        noiseValues[blockAbove + i] = ((1 - f1) * noiseValues[blockAbove + i]) + (f1 * noiseValues[noiseBlock + i]);
                 }
 
                 // Adjust block two above
                 if (realY < topY - 1) {
-                    NoiseTuple tupleTwoAbove = noises.get(realY + 2);
+                    int blockTwoAbove = noises.index(noiseX, noiseZ, realY + 2);
                     for (int i = 0; i < numGens; i++)
-                        tupleTwoAbove.set(i, ((1 - f2) * tupleTwoAbove.get(i)) + (f2 * noiseBlock.get(i)));
+                        noiseValues[blockTwoAbove + i] = ((1 - f2) * noiseValues[blockTwoAbove + i]) + (f2 * noiseValues[noiseBlock + i]);
                 }
             }
         }
     }
 
     /**
-     * Generate a map of y-coordinates to thresholds for a column of blocks.
+     * Generate a table of thresholds for a column of blocks, indexed by y-coordinate.
      * This is useful because the threshold will decrease near the surface, and it is useful (and more accurate)
      * to have a precomputed threshold value when doing y-adjustments for caves.
+     * The table is shared by all columns carved on the calling thread, and is only recomputed if its inputs differ
+     * from the previous call on that thread.
      * @param topY Top y-coordinate of the column
      * @param bottomY Bottom y-coordinate of the column
      * @param transitionBoundary The y-coordinate at which the caves start to close off
-     * @return Map of y-coordinates to noise thresholds
+     * @return Array of noise thresholds, indexed by y-coordinate. Only indices from bottomY to topY are valid.
+     *         The array is reused, so its contents are only valid until the next call on the same thread.
      */
-    private Map<Integer, Float> generateThresholds(int topY, int bottomY, int transitionBoundary) {
-        Map<Integer, Float> thresholds = new HashMap<>();
+    private float[] generateThresholds(int topY, int bottomY, int transitionBoundary) {
+        ThresholdTable table = thresholdTables.get();
+        if (!table.isValidFor(topY, bottomY, transitionBoundary)) {
+            computeThresholds(topY, bottomY, transitionBoundary, table.getValues());
+            table.setInputs(topY, bottomY, transitionBoundary);
+        }
+        return table.getValues();
+    }
+
+    /**
+     * Fill a table of thresholds for a column of blocks, indexed by y-coordinate.
+     * @param topY Top y-coordinate of the column
+     * @param bottomY Bottom y-coordinate of the column
+     * @param transitionBoundary The y-coordinate at which the caves start to close off
+     * @param out Array to write the thresholds to. Only indices from bottomY to topY are written.
+     */
+    private void computeThresholds(int topY, int bottomY, int transitionBoundary, float[] out) {
         for (int realY = bottomY; realY <= topY; realY++) {
             float noiseThreshold = settings.getNoiseThreshold();
             if (realY >= transitionBoundary)
                 noiseThreshold *= (1 + .3f * ((float)(realY - transitionBoundary) / (topY - transitionBoundary)));
-            thresholds.put(realY, noiseThreshold);
+            out[realY] = noiseThreshold;
         }
+    }
 
-        return thresholds;
+    /**
+     * @param maxSurfaceHeight The max surface height of the column
+     * @return The altitude at which caves start closing off so they aren't all open to the surface
+     */
+    private int getTransitionBoundary(int maxSurfaceHeight) {
+        return Math.max(maxSurfaceHeight - surfaceCutoff, 1);
     }
 
     public NoiseGen getNoiseGen() {
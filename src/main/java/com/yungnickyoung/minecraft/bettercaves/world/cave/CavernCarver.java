@@ -1,24 +1,33 @@
 package com.yungnickyoung.minecraft.bettercaves.world.cave;
 
 import com.yungnickyoung.minecraft.bettercaves.enums.CavernType;
-import com.yungnickyoung.minecraft.bettercaves.noise.NoiseColumn;
+import com.yungnickyoung.minecraft.bettercaves.noise.NoiseBuffer;
 import com.yungnickyoung.minecraft.bettercaves.noise.NoiseGen;
 import com.yungnickyoung.minecraft.bettercaves.util.BetterCavesUtil;
+import com.yungnickyoung.minecraft.bettercaves.util.ChunkPrimerAccess;
 import com.yungnickyoung.minecraft.bettercaves.world.cave.builder.CavernCarverBuilder;
+import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.chunk.ChunkPrimer;
 
-import java.util.List;
-
 /**
  * BetterCaves Cavern carver.
  * Caverns are large openings generated at the bottom of the world.
  */
 public class CavernCarver {
-    private CarverSettings settings;
-    private NoiseGen noiseGen;
-    private CavernType cavernType;
+    private final CarverSettings settings;
+    private final NoiseGen noiseGen;
+    private final CavernType cavernType;
+
+    /**
+     * Per-thread noise thresholds for each y-coordinate, before adjusting for region borders, keyed by the min
+     * surface height. Reused across columns, and only recomputed when the column bounds or min surface height change.
+     */
+    private final ThreadLocal<ThresholdTable> thresholdTables = ThreadLocal.withInitial(ThresholdTable::new);
+
+    /** Per-thread threshold tables used when generating noise cubes, which may happen on several threads at once */
+    private static final ThreadLocal<float[]> cubeThresholds = ThreadLocal.withInitial(() -> new float[256]);
 
     public CavernCarver(final CavernCarverBuilder builder) {
         settings = builder.getSettings();
@@ -30,15 +39,20 @@ public class CavernCarver {
                 settings.getyCompression(),
                 settings.getXzCompression()
         );
+        noiseGen.setLazyEvaluation(settings.isLazyNoiseEvaluation());
         cavernType = builder.getCavernType();
     }
 
-    public void generateColumnWithNoise(ChunkPrimer primer, BlockPos colPos, int bottomY,
+    public void generateColumnWithNoise(ChunkPrimer primer, ColumnContext context, BlockPos colPos, int bottomY,
                                         int topY, int maxSurfaceHeight, int minSurfaceHeight,
-                                        IBlockState liquidBlock, float smoothAmp, NoiseColumn noises, boolean liquidBuffer) {
+                                        IBlockState liquidBlock, float smoothAmp, NoiseBuffer noises, boolean liquidBuffer) {
         int localX = BetterCavesUtil.getLocal(colPos.getX());
         int localZ = BetterCavesUtil.getLocal(colPos.getZ());
 
+        // Position of this column in the noise buffer
+        int noiseX = colPos.getX() - noises.getOriginX();
+        int noiseZ = colPos.getZ() - noises.getOriginZ();
+
         // Validate vars
         if (localX < 0 || localX > 15)
             return;
@@ -49,6 +63,119 @@ public class CavernCarver {
         if (topY > 255)
             return;
 
+        // Pre-compute thresholds, since they are the same for every column
+        float[] thresholds = generateThresholds(topY, bottomY, minSurfaceHeight);
+
+        // If every noise value is between -1 and 1, multiplying in more values can't increase the product's magnitude.
+        // The product is then known to pass the threshold check as soon as its magnitude does.
+        boolean isBounded = noiseGen.isUnitBounded();
+
+        // Blocks are read and written directly through the primer's backing array
+        char[] data = ChunkPrimerAccess.getData(primer);
+        char liquidId = ChunkPrimerAccess.getStateId(liquidBlock);
+        boolean isLiquidWater = liquidBlock.getMaterial() == Material.WATER;
+        char debugBlockId = ChunkPrimerAccess.getStateId(settings.getDebugBlock());
+
+        /* =============== Dig out caves and caverns in this chunk, based on noise values =============== */
+        double[] noiseValues = noises.getValues();
+        int numGens = noises.getNumGens();
+        for (int y = topY; y >= bottomY; y--) {
+            if (y <= settings.getLiquidAltitude() && liquidBuffer)
+                break;
+
+            // Adjust threshold along region borders to create smooth transition
+            float noiseThreshold = thresholds[y];
+            if (smoothAmp < 1)
+                noiseThreshold *= smoothAmp;
+
+            // Compute a single noise value to represent all the noise values for this block
+            float noise = 1;
+            int noiseIndex = noises.index(noiseX, noiseZ, y);
+            for (int i = 0; i < numGens; i++) {
+                noise *= noiseValues[noiseIndex + i];
+                if (isBounded && Math.abs(noise) < noiseThreshold)
+                    break;
+            }
+
+            // Mark block for removal if the noise passes the threshold check
+            boolean digBlock = noise < noiseThreshold;
+
+            // Dig out the block if it passed the threshold check, using the debug visualizer if enabled
+            if (settings.isEnableDebugVisualizer()) {
+                CarverUtils.debugDigBlock(data, localX, y, localZ, debugBlockId, digBlock);
+            }
+            else if (digBlock) {
+                CarverUtils.digBlock(context, data, localX, y, localZ, liquidId, isLiquidWater, settings.getLiquidAltitude(), settings.isReplaceFloatingGravel());
+            }
+        }
+    }
+
+    /**
+     * Generate the noise cube for a sub-chunk, using this carver's lazy evaluation setting.
+     * Noise is only generated for the y-coordinates the sub-chunk's columns can read. The cube is empty if there
+     * are none, e.g. if every column's liquid buffer covers the whole cavern.
+     * @param startPos Position of any block in the starting corner column of the cube
+     * @param endPos Position of any block in the ending corner column of the cube
+     * @param bottomY The bottom y-coordinate of the caverns
+     * @param topY The top y-coordinate of the caverns
+     * @param minSurfaceHeight The min surface height the sub-chunk's columns are carved with
+     * @param minSmoothAmp The smallest smoothAmp any of the sub-chunk's columns are carved with. Lazy evaluation
+     *                     depends on this being no larger than any column's smoothAmp.
+     * @param liquidBuffer true if every column of the sub-chunk carved with this cube has a liquid buffer, in which
+     *                     case no noise is generated at or below the liquid altitude
+     * @param out The buffer to write to
+     * @return out
+     */
+    public NoiseBuffer interpolateNoiseCube(BlockPos startPos, BlockPos endPos, int bottomY, int topY, int minSurfaceHeight,
+                                           float minSmoothAmp, boolean liquidBuffer, NoiseBuffer out) {
+        // Columns with invalid bounds are skipped when carving
+        int noiseBottomY = bottomY;
+        if (bottomY < 0 || topY > 255)
+            noiseBottomY = topY + 1;
+        else if (liquidBuffer)
+            noiseBottomY = Math.max(bottomY, settings.getLiquidAltitude() + 1);
+
+        if (!settings.isLazyNoiseEvaluation() || noiseBottomY > topY)
+            return noiseGen.interpolateNoiseCube(startPos, endPos, noiseBottomY, topY, out);
+
+        float[] thresholds = cubeThresholds.get();
+        computeThresholds(topY, bottomY, minSurfaceHeight, thresholds);
+        if (minSmoothAmp < 1) {
+            for (int y = noiseBottomY; y <= topY; y++)
+                thresholds[y] *= minSmoothAmp;
+        }
+        return noiseGen.interpolateProductNoiseCube(startPos, endPos, noiseBottomY, topY, out, thresholds);
+    }
+
+    /**
+     * Generate a table of thresholds for a column of blocks, indexed by y-coordinate.
+     * The table is shared by all columns carved on the calling thread, and is only recomputed if its inputs differ
+     * from the previous call on that thread.
+     * @param topY Top y-coordinate of the column
+     * @param bottomY Bottom y-coordinate of the column
+     * @param minSurfaceHeight The min surface height of the column
+     * @return Array of noise thresholds, indexed by y-coordinate. Only indices from bottomY to topY are valid.
+     *         The array is reused, so its contents are only valid until the next call on the same thread.
+     */
+    private float[] generateThresholds(int topY, int bottomY, int minSurfaceHeight) {
+        ThresholdTable table = thresholdTables.get();
+        if (!table.isValidFor(topY, bottomY, minSurfaceHeight)) {
+            computeThresholds(topY, bottomY, minSurfaceHeight, table.getValues());
+            table.setInputs(topY, bottomY, minSurfaceHeight);
+        }
+        return table.getValues();
+    }
+
+    /**
+     * Fill a table of thresholds for a column of blocks, indexed by y-coordinate.
+     * The thresholds close off caverns at the top, and at the bottom for floored and water caverns.
+     * They are not adjusted for region borders.
+     * @param topY Top y-coordinate of the column
+     * @param bottomY Bottom y-coordinate of the column
+     * @param minSurfaceHeight The min surface height of the column
+     * @param out Array to write the thresholds to. Only indices from bottomY to topY are written.
+     */
+    private void computeThresholds(int topY, int bottomY, int minSurfaceHeight, float[] out) {
         // Altitude at which caverns start closing off on the top
         int topTransitionBoundary = topY - 10;
 
@@ -63,20 +190,7 @@ public class CavernCarver {
         else if (cavernType == CavernType.WATER)
             bottomTransitionBoundary = bottomY + 3;
 
-        /* =============== Dig out caves and caverns in this chunk, based on noise values =============== */
-        for (int y = topY; y >= bottomY; y--) {
-            if (y <= settings.getLiquidAltitude() && liquidBuffer)
-                break;
-
-            List<Double> noiseBlock;
-            boolean digBlock = false;
-
-            // Compute a single noise value to represent all the noise values in the NoiseTuple
-            float noise = 1;
-            noiseBlock = noises.get(y).getNoiseValues();
-            for (double n : noiseBlock)
-                noise *= n;
-
+        for (int y = bottomY; y <= topY; y++) {
             // Adjust threshold if we're in the transition range to provide smoother transition into ceiling
             float noiseThreshold = settings.getNoiseThreshold();
             if (y >= topTransitionBoundary)
@@ -90,23 +204,7 @@ public class CavernCarver {
             if ((this.cavernType == CavernType.FLOORED || this.cavernType == CavernType.WATER) && y <= bottomTransitionBoundary)
                 noiseThreshold *= Math.max((float) (y - bottomY) / (bottomTransitionBoundary - bottomY), .3f);
 
-            // Adjust threshold along region borders to create smooth transition
-            if (smoothAmp < 1)
-                noiseThreshold *= smoothAmp;
-
-            // Mark block for removal if the noise passes the threshold check
-            if (noise < noiseThreshold)
-                digBlock = true;
-
-            BlockPos blockPos = new BlockPos(colPos.getX(), y, colPos.getZ());
-
-            // Dig out the block if it passed the threshold check, using the debug visualizer if enabled
-            if (settings.isEnableDebugVisualizer()) {
-                CarverUtils.debugDigBlock(primer, blockPos, settings.getDebugBlock(), digBlock);
-            }
-            else if (digBlock) {
-                CarverUtils.digBlock(settings.getWorld(), primer, blockPos, liquidBlock, settings.getLiquidAltitude(), settings.isReplaceFloatingGravel());
-            }
+            out[y] = noiseThreshold;
         }
     }
 
@@ -0,0 +1,85 @@
+package com.yungnickyoung.minecraft.bettercaves.world.cave;
+
+import com.yungnickyoung.minecraft.bettercaves.world.GenerationMetrics;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+
+/**
+ * Per-column information needed by carvers when digging blocks.
+ * Resolving the biome once per column avoids a biome lookup for every block dug.
+ *
+ * A single instance is meant to be reused for every column of a chunk: call {@link #setChunk} once per chunk
+ * to fetch the chunk's biomes, and {@link #setColumn} before carving each column.
+ */
+public class ColumnContext {
+    /** Biomes of the current chunk, indexed by localX | localZ << 4 */
+    private Biome[] biomes = new Biome[256];
+
+    // Biome of the current column, along with its top and filler blocks
+    private Biome biome;
+    private IBlockState topBlockState;
+    private Block topBlock;
+    private Block fillerBlock;
+
+    /** Metrics that digs are counted towards, or null if metrics are disabled */
+    private GenerationMetrics.ChunkMetrics metrics;
+
+    /**
+     * Fetches the biomes of every column in a chunk.
+     * @param world The Minecraft world
+     * @param chunkX The chunk's x-coordinate (on the chunk grid, not the block grid)
+     * @param chunkZ The chunk's z-coordinate (on the chunk grid, not the block grid)
+     * @return this context
+     */
+    public ColumnContext setChunk(World world, int chunkX, int chunkZ) {
+        biomes = world.getBiomeProvider().getBiomes(biomes, chunkX * 16, chunkZ * 16, 16, 16);
+        return this;
+    }
+
+    /**
+     * Selects the column subsequent digs are performed in.
+     * @param localX The column's x-coordinate within the chunk (0-15)
+     * @param localZ The column's z-coordinate within the chunk (0-15)
+     * @return this context
+     */
+    public ColumnContext setColumn(int localX, int localZ) {
+        biome = biomes[localX | localZ << 4];
+        topBlockState = biome.topBlock;
+        topBlock = topBlockState.getBlock();
+        fillerBlock = biome.fillerBlock.getBlock();
+        return this;
+    }
+
+    /**
+     * Sets the chunk metrics that subsequent digs are counted towards.
+     * @param metrics The chunk metrics, or null to disable counting
+     * @return this context
+     */
+    public ColumnContext setMetrics(GenerationMetrics.ChunkMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /* ------------------------- Public Getters -------------------------*/
+    public Biome getBiome() {
+        return biome;
+    }
+
+    public IBlockState getTopBlockState() {
+        return topBlockState;
+    }
+
+    public Block getTopBlock() {
+        return topBlock;
+    }
+
+    public Block getFillerBlock() {
+        return fillerBlock;
+    }
+
+    public GenerationMetrics.ChunkMetrics getMetrics() {
+        return metrics;
+    }
+}
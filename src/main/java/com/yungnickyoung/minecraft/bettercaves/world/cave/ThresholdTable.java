@@ -0,0 +1,43 @@
+package com.yungnickyoung.minecraft.bettercaves.world.cave;
+
+/**
+ * Table of noise thresholds for a column of blocks, indexed by y-coordinate, along with the column bounds and
+ * carver-specific parameter it was computed for.
+ * Consecutive columns usually share the same inputs, so carvers reuse a table until its inputs change.
+ * Tables are mutable, so each carver keeps one per thread.
+ */
+public class ThresholdTable {
+    private final float[] values = new float[256];
+    private int topY = -1;
+    private int bottomY = -1;
+    private int parameter = -1;
+
+    /**
+     * @param topY Top y-coordinate of the column
+     * @param bottomY Bottom y-coordinate of the column
+     * @param parameter The other input the thresholds depend on, e.g. the transition boundary of a cave
+     * @return true if the table currently holds the thresholds for the given inputs
+     */
+    public boolean isValidFor(int topY, int bottomY, int parameter) {
+        return topY == this.topY && bottomY == this.bottomY && parameter == this.parameter;
+    }
+
+    /**
+     * Records the inputs the table's values have just been computed for.
+     * @param topY Top y-coordinate of the column
+     * @param bottomY Bottom y-coordinate of the column
+     * @param parameter The other input the thresholds depend on
+     */
+    public void setInputs(int topY, int bottomY, int parameter) {
+        this.topY = topY;
+        this.bottomY = bottomY;
+        this.parameter = parameter;
+    }
+
+    /**
+     * @return Array of noise thresholds, indexed by y-coordinate. Only indices from bottomY to topY are valid.
+     */
+    public float[] getValues() {
+        return values;
+    }
+}
@@ -34,6 +34,7 @@ public class CaveCarverBuilder {
      */
     public CaveCarverBuilder ofTypeFromConfig(CaveType caveType, ConfigHolder config) {
         this.settings.setLiquidAltitude(config.liquidAltitude.get());
+        this.settings.setLazyNoiseEvaluation(config.enableLazyNoiseEvaluation.get());
         this.settings.setReplaceFloatingGravel(config.replaceFloatingGravel.get());
         this.settings.setEnableDebugVisualizer(config.debugVisualizer.get());
         this.settings.getNoiseSettings().setFractalType(FastNoise.FractalType.RigidMulti);
@@ -55,6 +56,7 @@ public class CaveCarverBuilder {
                 break;
             case SIMPLEX:
                 this.settings.setFastNoise(false);
+                this.settings.setFloatSimplex(config.useFloatSimplexNoise.get());
                 this.settings.setNoiseThreshold(config.simplexCaveNoiseThreshold.get());
                 this.settings.getNoiseSettings().setNoiseType(config.simplexCaveNoiseType.get());
                 this.settings.getNoiseSettings().setOctaves(config.simplexCaveFractalOctaves.get());
@@ -112,6 +114,22 @@ public class CaveCarverBuilder {
         return this;
     }
 
+    /**
+     * @param lazyNoiseEvaluation true to only evaluate noise generators after the first where they can affect carving
+     */
+    public CaveCarverBuilder lazyNoiseEvaluation(boolean lazyNoiseEvaluation) {
+        settings.setLazyNoiseEvaluation(lazyNoiseEvaluation);
+        return this;
+    }
+
+    /**
+     * @param floatSimplex true to use single-precision OpenSimplex2S noise. Only used for OpenSimplex2S-based carvers
+     */
+    public CaveCarverBuilder floatSimplexNoise(boolean floatSimplex) {
+        settings.setFloatSimplex(floatSimplex);
+        return this;
+    }
+
     /**
      * @param yCompression Vertical cave gen compression. Use 1.0 for default generation
      */
@@ -32,6 +32,7 @@ public class CavernCarverBuilder {
      */
     public CavernCarverBuilder ofTypeFromConfig(CavernType cavernType, ConfigHolder config) {
         this.settings.setLiquidAltitude(config.liquidAltitude.get());
+        this.settings.setLazyNoiseEvaluation(config.enableLazyNoiseEvaluation.get());
         this.settings.setReplaceFloatingGravel(config.replaceFloatingGravel.get());
         this.settings.getNoiseSettings().setFractalType(FastNoise.FractalType.RigidMulti);
         this.settings.setEnableDebugVisualizer(config.debugVisualizer.get());
@@ -113,6 +114,14 @@ public class CavernCarverBuilder {
         return this;
     }
 
+    /**
+     * @param lazyNoiseEvaluation true to only evaluate as many noise generators as needed to decide whether to dig
+     */
+    public CavernCarverBuilder lazyNoiseEvaluation(boolean lazyNoiseEvaluation) {
+        settings.setLazyNoiseEvaluation(lazyNoiseEvaluation);
+        return this;
+    }
+
     /**
      * @param yCompression Vertical cave gen compression. Use 1.0 for default generation
      */
@@ -1,7 +1,7 @@
 package com.yungnickyoung.minecraft.bettercaves.world.ravine;
 
-import com.yungnickyoung.minecraft.bettercaves.BetterCaves;
 import com.yungnickyoung.minecraft.bettercaves.config.Configuration;
+import com.yungnickyoung.minecraft.bettercaves.world.CarverRegistry;
 import com.yungnickyoung.minecraft.bettercaves.world.MapGenBetterCaves;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.ChunkPrimer;
@@ -16,7 +16,7 @@ public class MapGenBetterRavine extends MapGenRavine {
     protected void recursiveGenerate(World worldIn, int chunkX, int chunkZ, int originalX, int originalZ, ChunkPrimer chunkPrimerIn) {
         // Get the Better Caves carver for this dimension, if it exists
         int dimensionID = worldIn.provider.getDimension();
-        MapGenBetterCaves carver = BetterCaves.activeCarversMap.get(dimensionID);
+        MapGenBetterCaves carver = CarverRegistry.get(dimensionID);
 
         if (carver != null) { // If carver exists, use its config to determine ravine spawning
             if (carver.config.enableVanillaRavines.get())